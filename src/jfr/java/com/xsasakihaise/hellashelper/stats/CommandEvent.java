@@ -0,0 +1,24 @@
+package com.xsasakihaise.hellashelper.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering the server-thread part of a {@code /hellas} command.
+ */
+@Name("hellashelper.Command")
+@Label("Hellas Command")
+@Description("Server thread time spent answering a /hellas command")
+@Category("HellasHelper")
+@StackTrace(false)
+final class CommandEvent extends Event {
+    @Label("Mod")
+    String modId;
+
+    @Label("Subcommand")
+    String subcommand;
+}
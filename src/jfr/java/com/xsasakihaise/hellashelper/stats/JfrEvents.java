@@ -0,0 +1,52 @@
+package com.xsasakihaise.hellashelper.stats;
+
+/**
+ * Creates and commits the helper's JFR events.
+ * <p>
+ * This class and the event classes are the only ones referencing
+ * {@code jdk.jfr}. They are compiled separately from the main sources and
+ * instantiated reflectively by {@link HelperMetrics}, and only after it
+ * checked that the running JVM ships the JFR API, so the helper still loads
+ * on Java 8 builds without it.
+ * </p>
+ */
+final class JfrEvents implements JfrBridge {
+    JfrEvents() {
+    }
+
+    @Override
+    public Object beginCommand() {
+        final CommandEvent event = new CommandEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitCommand(final Object event, final String modId, final String subcommand) {
+        final CommandEvent command = (CommandEvent) event;
+        command.modId = modId;
+        command.subcommand = subcommand;
+        command.commit();
+    }
+
+    @Override
+    public Object beginMetadataLoad() {
+        final MetadataLoadEvent event = new MetadataLoadEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitMetadataLoad(final Object event, final String modId, final String status) {
+        final MetadataLoadEvent load = (MetadataLoadEvent) event;
+        load.modId = modId;
+        load.status = status;
+        load.commit();
+    }
+}
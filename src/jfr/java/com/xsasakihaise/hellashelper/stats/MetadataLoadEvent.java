@@ -0,0 +1,24 @@
+package com.xsasakihaise.hellashelper.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering the metadata load of a single mod.
+ */
+@Name("hellashelper.MetadataLoad")
+@Label("Hellas Metadata Load")
+@Description("Reading and parsing the metadata of one Hellas mod")
+@Category("HellasHelper")
+@StackTrace(false)
+final class MetadataLoadEvent extends Event {
+    @Label("Mod")
+    String modId;
+
+    @Label("Status")
+    String status;
+}
@@ -0,0 +1,144 @@
+package com.xsasakihaise.hellashelper.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.xsasakihaise.hellashelper.metadata.InMemoryModLookup;
+import com.xsasakihaise.hellashelper.metadata.MetadataFixtures;
+import com.xsasakihaise.hellashelper.metadata.MetadataLoader;
+import com.xsasakihaise.hellashelper.metadata.MetadataRepository;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.ICommandSource;
+import net.minecraft.util.math.vector.Vector2f;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Measures Brigadier dispatch through the {@code /hellas} tree built by
+ * {@link HellasCommandRegistrar}, with every suite module installed.
+ */
+@State(Scope.Benchmark)
+public class CommandBenchmark {
+    @Param({"SMALL", "TYPICAL", "PATHOLOGICAL"})
+    public MetadataFixtures.Size size;
+
+    private Path root;
+    private CommandDispatcher<CommandSource> dispatcher;
+    private CommandSource source;
+    private CountingSource messages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("hellashelper-jmh");
+        final ModuleRegistry registry = ModuleRegistry.offline(ModuleRegistry.SUITE_MODULE_IDS);
+        final InMemoryModLookup mods = new InMemoryModLookup();
+        for (String modId : registry.modIds()) {
+            mods.install(modId, "1.0.0", MetadataFixtures.writeModFile(root.resolve(modId), modId, size));
+        }
+
+        final MetadataRepository repository = new MetadataRepository(
+                new MetadataLoader(mods, () -> 16 * 1024 * 1024, () -> 65536), registry.modIds());
+        repository.preload();
+
+        dispatcher = new CommandDispatcher<>();
+        HellasCommandRegistrar.register(dispatcher, registry, repository);
+
+        messages = new CountingSource();
+        source = new CommandSource(messages, Vector3d.ZERO, Vector2f.ZERO, null, 4, "benchmark",
+                new StringTextComponent("benchmark"), null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Full {@code /hellas helper rollcall} execution, including parsing.
+     *
+     * @return brigadier command result
+     * @throws CommandSyntaxException never, the command is valid
+     */
+    @Benchmark
+    public int runRollcall() throws CommandSyntaxException {
+        return dispatcher.execute("hellas helper rollcall", source);
+    }
+
+    /**
+     * Full {@code /hellas <mod> version} execution, including parsing.
+     *
+     * @return brigadier command result
+     * @throws CommandSyntaxException never, the command is valid
+     */
+    @Benchmark
+    public int dispatchVersion() throws CommandSyntaxException {
+        return dispatcher.execute("hellas hellaswilds version", source);
+    }
+
+    /**
+     * Brigadier parsing of a {@code /hellas} command without executing it.
+     *
+     * @return the parse results
+     */
+    @Benchmark
+    public ParseResults<CommandSource> parseDependencies() {
+        return dispatcher.parse("hellas hellascontrol dependencies", source);
+    }
+
+    /**
+     * Tab completion of a partially typed {@code /hellas search} term, as sent
+     * by clients on every keystroke.
+     *
+     * @return the suggestions
+     */
+    @Benchmark
+    public Suggestions suggestSearchTerm() {
+        return dispatcher.getCompletionSuggestions(dispatcher.parse("hellas search feat", source)).join();
+    }
+
+    /**
+     * Stand-in for a player that only counts the messages it receives.
+     */
+    private static final class CountingSource implements ICommandSource {
+        private long received;
+
+        @Override
+        public void sendMessage(final ITextComponent component, final UUID sender) {
+            received++;
+        }
+
+        @Override
+        public boolean acceptsSuccess() {
+            return true;
+        }
+
+        @Override
+        public boolean acceptsFailure() {
+            return true;
+        }
+
+        @Override
+        public boolean shouldInformAdmins() {
+            return false;
+        }
+    }
+}
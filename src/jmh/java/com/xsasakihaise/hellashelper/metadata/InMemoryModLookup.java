@@ -0,0 +1,54 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Benchmark stand-in for Forge's {@code ModList} and {@code ModFileInfo}.
+ * <p>
+ * Every registered mod is "installed" with a fixed version, and its file is
+ * represented by a plain directory whose contents mirror the mod JAR.
+ * </p>
+ */
+public final class InMemoryModLookup implements ModLookup {
+    private final Map<String, Path> roots = new HashMap<>();
+    private final Map<String, String> versions = new HashMap<>();
+
+    /**
+     * Registers a mod as installed.
+     *
+     * @param modId   id of the mod
+     * @param version version reported for the mod
+     * @param root    directory standing in for the mod file
+     * @return this lookup
+     */
+    public InMemoryModLookup install(final String modId, final String version, final Path root) {
+        roots.put(modId, root);
+        versions.put(modId, version);
+        return this;
+    }
+
+    @Override
+    public boolean isLoaded(final String modId) {
+        return roots.containsKey(modId);
+    }
+
+    @Override
+    public Optional<Path> findResource(final String modId, final String resource) {
+        final Path root = roots.get(modId);
+        if (root == null) {
+            return Optional.empty();
+        }
+
+        final Path path = root.resolve(resource);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public Optional<String> installedVersion(final String modId) {
+        return Optional.ofNullable(versions.get(modId));
+    }
+}
@@ -0,0 +1,88 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Measures reading a single mod's metadata, from file lookup to decoded entries.
+ */
+@State(Scope.Benchmark)
+public class MetadataBenchmark {
+    private static final String MOD_ID = "hellasbenchmark";
+
+    @Param({"SMALL", "TYPICAL", "PATHOLOGICAL"})
+    public MetadataFixtures.Size size;
+
+    private Path root;
+    private String document;
+    private MetadataLoader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = MetadataFixtures.writeModFile(Files.createTempDirectory("hellashelper-jmh"), MOD_ID, size);
+        document = MetadataFixtures.document(size);
+        loader = new MetadataLoader(new InMemoryModLookup().install(MOD_ID, "1.0.0", root),
+                () -> 16 * 1024 * 1024, () -> 65536);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Full {@link MetadataLoader#load(String)}: resource lookup, size check and streaming parse.
+     *
+     * @return the loaded entry
+     */
+    @Benchmark
+    public ModMetadata loadMetadata() {
+        return loader.load(MOD_ID);
+    }
+
+    /**
+     * Streaming parse of an in-memory document followed by decoding every
+     * feature, i.e. the work {@code readStringArray} used to do on the JSON tree.
+     *
+     * @param blackhole sink for the decoded entries
+     * @throws IOException never, the document is well-formed
+     */
+    @Benchmark
+    public void readStringArray(final Blackhole blackhole) throws IOException {
+        final List<String> features = MetadataParser.parse(new StringReader(document), 65536).getIndex().features();
+        for (int i = 0; i < features.size(); i++) {
+            blackhole.consume(features.get(i));
+        }
+    }
+
+    /**
+     * Streaming parse of an in-memory document followed by decoding every
+     * dependency, which are short enough to be served from the {@link StringPool}.
+     *
+     * @param blackhole sink for the decoded entries
+     * @throws IOException never, the document is well-formed
+     */
+    @Benchmark
+    public void readDependencies(final Blackhole blackhole) throws IOException {
+        final List<String> dependencies = MetadataParser.parse(new StringReader(document), 65536).getIndex().dependencies();
+        for (int i = 0; i < dependencies.size(); i++) {
+            blackhole.consume(dependencies.get(i));
+        }
+    }
+}
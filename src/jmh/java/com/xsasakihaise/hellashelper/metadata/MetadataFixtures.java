@@ -0,0 +1,71 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates metadata documents of different sizes for the benchmarks.
+ */
+public final class MetadataFixtures {
+    private MetadataFixtures() {
+    }
+
+    /**
+     * Metadata sizes covered by the benchmarks.
+     */
+    public enum Size {
+        /** A module with a couple of entries. */
+        SMALL(1, 3, 40),
+        /** Roughly what the current suite modules ship. */
+        TYPICAL(3, 25, 120),
+        /** A module that documents every feature in detail. */
+        PATHOLOGICAL(40, 1000, 400);
+
+        private final int dependencies;
+        private final int features;
+        private final int featureLength;
+
+        Size(final int dependencies, final int features, final int featureLength) {
+            this.dependencies = dependencies;
+            this.features = features;
+            this.featureLength = featureLength;
+        }
+    }
+
+    /**
+     * @param size size of the document
+     * @return a metadata JSON document of the requested size
+     */
+    public static String document(final Size size) {
+        final StringBuilder json = new StringBuilder("{\"version\":\"1.0.0\",\"dependencies\":[");
+        for (int i = 0; i < size.dependencies; i++) {
+            json.append(i == 0 ? "" : ",").append("\"hellascontrol [2.0.").append(i).append(",)\"");
+        }
+        json.append("],\"features\":[");
+        for (int i = 0; i < size.features; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append("Feature ").append(i).append(": ");
+            for (int c = json.length(), end = c + size.featureLength; c < end; c++) {
+                json.append((char) ('a' + c % 26));
+            }
+            json.append('"');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Writes a mod file stand-in containing {@code config/<modid>.json}.
+     *
+     * @param root  directory standing in for the mod file
+     * @param modId id of the mod
+     * @param size  size of the metadata document
+     * @return the root directory
+     * @throws IOException when the file cannot be written
+     */
+    public static Path writeModFile(final Path root, final String modId, final Size size) throws IOException {
+        final Path config = Files.createDirectories(root.resolve("config"));
+        Files.write(config.resolve(modId + ".json"), document(size).getBytes(StandardCharsets.UTF_8));
+        return root;
+    }
+}
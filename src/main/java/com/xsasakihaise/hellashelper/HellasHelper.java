@@ -2,13 +2,26 @@ package com.xsasakihaise.hellashelper;
 
 import com.xsasakihaise.hellascontrol.api.CoreCheck;
 import com.xsasakihaise.hellashelper.command.HellasCommandRegistrar;
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.stats.StartupTimeline;
+import com.xsasakihaise.hellashelper.sync.ClientSync;
+import com.xsasakihaise.hellashelper.sync.MetadataSync;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.fml.DistExecutor;
 import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.minecraftforge.fml.event.server.FMLServerAboutToStartEvent;
+import net.minecraftforge.fml.event.server.FMLServerStartedEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 
@@ -28,16 +41,31 @@ public final class HellasHelper {
     /**
      * Registers the mod lifecycle listeners required by this helper mod.
      * <p>
-     * No explicit initialization beyond the entitlement checks and command
-     * registration is needed, so the constructor only wires listeners that
-     * dispatch to the relevant helper methods in this class.
+     * No explicit initialization beyond the entitlement checks, the common
+     * config, the metadata sync channel and command registration is needed, so
+     * the constructor only wires listeners that dispatch to the relevant helper
+     * methods in this class.
      * </p>
      */
     public HellasHelper() {
+        StartupTimeline.mark(StartupTimeline.Phase.CONSTRUCT);
+        ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, HellasHelperConfig.SPEC);
+
         final IEventBus modBus = FMLJavaModLoadingContext.get().getModEventBus();
         modBus.addListener(this::onCommonSetup);
 
+        MetadataSync.register();
+        DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> ClientSync::init);
+
+        MinecraftForge.EVENT_BUS.addListener(this::onServerAboutToStart);
+        MinecraftForge.EVENT_BUS.addListener(this::onServerStarted);
+        MinecraftForge.EVENT_BUS.addListener(this::onServerTick);
+        MinecraftForge.EVENT_BUS.addListener(this::onServerStopping);
         MinecraftForge.EVENT_BUS.addListener(this::onRegisterCommands);
+        MinecraftForge.EVENT_BUS.addListener(this::onPlayerLoggedIn);
+        MinecraftForge.EVENT_BUS.addListener(this::onPlayerLoggedOut);
+        MinecraftForge.EVENT_BUS.addListener(this::onPlayerRespawn);
+        MinecraftForge.EVENT_BUS.addListener(this::onPlayerChangedDimension);
     }
 
     /**
@@ -47,17 +75,69 @@ public final class HellasHelper {
      * @param event the common setup lifecycle event fired by Forge
      */
     private void onCommonSetup(final FMLCommonSetupEvent event) {
+        StartupTimeline.mark(StartupTimeline.Phase.COMMON_SETUP);
         if (!ModList.get().isLoaded("hellascontrol")) {
             return;
         }
 
-        CoreCheck.verifyCoreLoaded();
+        StartupTimeline.time("CoreCheck.verifyCoreLoaded", CoreCheck::verifyCoreLoaded);
 
         if (FMLEnvironment.dist == Dist.DEDICATED_SERVER) {
-            CoreCheck.verifyEntitled(MOD_ID);
+            StartupTimeline.time("CoreCheck.verifyEntitled", () -> CoreCheck.verifyEntitled(MOD_ID));
         }
     }
 
+    /**
+     * Preloads the metadata of every Hellas mod before the server accepts
+     * players, so that the {@code /hellas} commands only perform lookups, then
+     * starts watching the metadata overrides and the optional status endpoint.
+     *
+     * @param event the server startup event fired by Forge
+     */
+    private void onServerAboutToStart(final FMLServerAboutToStartEvent event) {
+        StartupTimeline.mark(StartupTimeline.Phase.SERVER_STARTING);
+        HellasCommandRegistrar.preloadMetadata();
+        HellasCommandRegistrar.watchMetadataOverrides();
+        HellasCommandRegistrar.startStatusEndpoint();
+    }
+
+    /**
+     * Records the startup timing of this boot and starts the optional
+     * profiler once the server is running. The event is fired on the server
+     * thread, which is the thread the profiler samples.
+     *
+     * @param event the server started event fired by Forge
+     */
+    private void onServerStarted(final FMLServerStartedEvent event) {
+        StartupTimeline.mark(StartupTimeline.Phase.SERVER_STARTED);
+        HellasCommandRegistrar.completeStartup();
+        HellasCommandRegistrar.startProfiler(Thread.currentThread());
+    }
+
+    /**
+     * Counts finished server ticks for the optional profiler.
+     *
+     * @param event the server tick event fired by Forge
+     */
+    private void onServerTick(final TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            HellasCommandRegistrar.onServerTick();
+        }
+    }
+
+    /**
+     * Stops watching the metadata overrides and closes the status endpoint,
+     * the profiler and the node directory when the server shuts down.
+     *
+     * @param event the server shutdown event fired by Forge
+     */
+    private void onServerStopping(final FMLServerStoppingEvent event) {
+        HellasCommandRegistrar.stopWatchingMetadata();
+        HellasCommandRegistrar.stopStatusEndpoint();
+        HellasCommandRegistrar.stopProfiler();
+        HellasCommandRegistrar.stopNodeDirectory();
+    }
+
     /**
      * Handles {@link RegisterCommandsEvent} in order to register the
      * collection of {@code /hellas <mod> ...} informational commands.
@@ -65,6 +145,56 @@ public final class HellasHelper {
      * @param event event provided by Forge during the server command build phase
      */
     private void onRegisterCommands(final RegisterCommandsEvent event) {
+        StartupTimeline.mark(StartupTimeline.Phase.COMMANDS_REGISTERED);
         HellasCommandRegistrar.register(event);
     }
+
+    /**
+     * Offers the suite metadata to a player that joined the server.
+     *
+     * @param event the login event fired by Forge
+     */
+    private void onPlayerLoggedIn(final PlayerEvent.PlayerLoggedInEvent event) {
+        offerMetadata(event);
+    }
+
+    /**
+     * Forgets the metadata requests of a player that left the server.
+     *
+     * @param event the logout event fired by Forge
+     */
+    private void onPlayerLoggedOut(final PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            MetadataSync.forget((ServerPlayerEntity) event.getPlayer());
+        }
+    }
+
+    /**
+     * Offers the suite metadata again after a respawn, since the client
+     * stops answering locally whenever it respawns.
+     *
+     * @param event the respawn event fired by Forge
+     */
+    private void onPlayerRespawn(final PlayerEvent.PlayerRespawnEvent event) {
+        offerMetadata(event);
+    }
+
+    /**
+     * Offers the suite metadata again after a dimension change, which the
+     * client also sees as a respawn.
+     *
+     * @param event the dimension change event fired by Forge
+     */
+    private void onPlayerChangedDimension(final PlayerEvent.PlayerChangedDimensionEvent event) {
+        offerMetadata(event);
+    }
+
+    /**
+     * @param event player event whose server-side player is offered the metadata
+     */
+    private static void offerMetadata(final PlayerEvent event) {
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            MetadataSync.offer((ServerPlayerEntity) event.getPlayer());
+        }
+    }
 }
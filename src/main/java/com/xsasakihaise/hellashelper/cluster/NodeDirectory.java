@@ -0,0 +1,228 @@
+package com.xsasakihaise.hellashelper.cluster;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared directory through which the nodes of a network exchange their
+ * {@link NodeSnapshot}s, one {@code <node>.hhns} file per node.
+ * <p>
+ * Every node replaces its own file by writing a temporary file and moving it
+ * into place atomically, so readers never need a lock and never observe a
+ * partial write. The directory may well be a slow network share, so all of
+ * its I/O runs on a daemon thread of its own: publishing writes the local
+ * file and then rescans the peers, and the peers are also rescanned
+ * periodically. Commands only read the result of the last scan.
+ * </p>
+ * <p>
+ * Peer files are read into heap buffers rather than memory-mapped, since a
+ * live mapping on Windows would keep the peer from replacing its file, and
+ * they are only decoded again when their size or modification time changed.
+ * </p>
+ */
+public final class NodeDirectory implements AutoCloseable {
+    static final String EXTENSION = ".hhns";
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Path directory;
+    private final String node;
+    private final ScheduledExecutorService io;
+    private final Map<Path, Cached> cache = new HashMap<>();
+    private volatile List<NodeSnapshot> peers = Collections.emptyList();
+
+    /**
+     * @param directory shared directory, created on first publish
+     * @param node      name of the local node
+     */
+    private NodeDirectory(final Path directory, final String node) {
+        this.directory = Objects.requireNonNull(directory);
+        this.node = Objects.requireNonNull(node);
+        this.io = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "HellasHelper-NodeDirectory");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a shared directory and starts rescanning its peers periodically.
+     *
+     * @param directory      shared directory, created on first publish
+     * @param node           name of the local node
+     * @param refreshSeconds seconds between two scans of the peer files
+     * @return the directory
+     */
+    public static NodeDirectory start(final Path directory, final String node, final long refreshSeconds) {
+        final NodeDirectory nodes = new NodeDirectory(directory, node);
+        nodes.io.scheduleWithFixedDelay(nodes::refresh, 0L, refreshSeconds, TimeUnit.SECONDS);
+        return nodes;
+    }
+
+    /**
+     * Replaces the local node's file with a new snapshot and rescans the
+     * peers, in the background. Failures are logged.
+     *
+     * @param snapshot snapshot of the local node
+     */
+    public void publish(final NodeSnapshot snapshot) {
+        try {
+            io.execute(() -> {
+                try {
+                    write(snapshot);
+                } catch (IOException ex) {
+                    LOGGER.warn("Unable to publish the suite snapshot of node {}.", node, ex);
+                }
+                refresh();
+            });
+        } catch (RejectedExecutionException ex) {
+            LOGGER.debug("Not publishing the suite snapshot of node {} after shutdown.", node);
+        }
+    }
+
+    /**
+     * @return the snapshots of every other node as of the last scan, ordered by node name
+     */
+    public List<NodeSnapshot> getPeers() {
+        return peers;
+    }
+
+    /**
+     * Writes the local node's file through a temporary file.
+     *
+     * @param snapshot snapshot of the local node
+     * @throws IOException when the file cannot be written
+     */
+    private void write(final NodeSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        final Path target = directory.resolve(fileName(node));
+        final Path temporary = directory.resolve(fileName(node) + ".tmp");
+        Files.write(temporary, snapshot.encode());
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the snapshots of every other node in the directory and publishes
+     * them to {@link #getPeers()}. Files that cannot be read are skipped.
+     * Only ever runs on the directory's own thread.
+     */
+    private void refresh() {
+        try {
+            final List<NodeSnapshot> snapshots = new ArrayList<>();
+            final Set<Path> seen = new HashSet<>();
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                    for (Path file : files) {
+                        seen.add(file);
+                        final NodeSnapshot snapshot = read(file);
+                        if (snapshot != null && !snapshot.getNode().equals(node)) {
+                            snapshots.add(snapshot);
+                        }
+                    }
+                } catch (IOException ex) {
+                    LOGGER.warn("Unable to list the node snapshots in {}.", directory, ex);
+                    return;
+                }
+            }
+
+            cache.keySet().retainAll(seen);
+            snapshots.sort(Comparator.comparing(NodeSnapshot::getNode));
+            peers = Collections.unmodifiableList(snapshots);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Unable to refresh the node snapshots in {}.", directory, ex);
+        }
+    }
+
+    /**
+     * Returns the decoded snapshot of a peer file, decoding it again only if
+     * the file changed.
+     *
+     * @param file peer file
+     * @return the snapshot, or {@code null} if the file cannot be read
+     */
+    private NodeSnapshot read(final Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final long size = attributes.size();
+            final long modified = attributes.lastModifiedTime().toMillis();
+            final Cached cached = cache.get(file);
+            if (cached != null && cached.size == size && cached.modified == modified) {
+                return cached.snapshot;
+            }
+            if (size > NodeSnapshot.MAX_BYTES) {
+                throw new IOException("Node snapshot of " + size + " bytes is too large");
+            }
+
+            final NodeSnapshot snapshot = NodeSnapshot.decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+            cache.put(file, new Cached(size, modified, snapshot));
+            return snapshot;
+        } catch (IOException ex) {
+            LOGGER.debug("Skipping unreadable node snapshot {}.", file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * @param name node name
+     * @return file name of the node's snapshot, with characters unsafe in file names replaced
+     */
+    private static String fileName(final String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION;
+    }
+
+    /**
+     * @return name of the local node
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * Stops the background thread. A publish that is already running still
+     * completes.
+     */
+    @Override
+    public void close() {
+        io.shutdown();
+    }
+
+    /**
+     * A decoded peer snapshot with the file attributes it was read at.
+     */
+    private static final class Cached {
+        private final long size;
+        private final long modified;
+        private final NodeSnapshot snapshot;
+
+        private Cached(final long size, final long modified, final NodeSnapshot snapshot) {
+            this.size = size;
+            this.modified = modified;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.xsasakihaise.hellashelper.cluster;
+
+import com.xsasakihaise.hellashelper.metadata.Hashes;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.module.HellasModule;
+import com.xsasakihaise.hellashelper.module.JarFingerprints;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The suite state of one server, as exchanged between the nodes of a network.
+ * <p>
+ * A snapshot lists every module the node knows with its installed flag,
+ * version, JAR fingerprint and metadata checksum, and is stored in a compact
+ * big-endian binary form:
+ * </p>
+ * <pre>
+ * int   magic          'HHNS'
+ * short formatVersion  1
+ * short reserved       0
+ * long  publishedMillis
+ * string node
+ * int   count
+ * count * (string modId, byte installed, string version, string jarHash, string metadataChecksum)
+ *
+ * string: short byteLength, UTF-8 bytes
+ * </pre>
+ * <p>
+ * Empty strings stand for unknown hashes; any other JAR hash must be a full
+ * hex SHA-256. Encoded snapshots larger than {@value #MAX_BYTES} bytes are
+ * rejected, which bounds what a peer file can make a node read into memory.
+ * </p>
+ */
+public final class NodeSnapshot {
+    static final int MAGIC = 0x48484E53;
+    static final int FORMAT_VERSION = 1;
+    static final int MAX_BYTES = 1 << 20;
+
+    private final String node;
+    private final long publishedMillis;
+    private final Map<String, Module> modules;
+
+    private NodeSnapshot(final String node, final long publishedMillis, final Map<String, Module> modules) {
+        this.node = Objects.requireNonNull(node);
+        this.publishedMillis = publishedMillis;
+        this.modules = Collections.unmodifiableMap(modules);
+    }
+
+    /**
+     * Captures the state of the local node.
+     *
+     * @param node         name of the local node
+     * @param snapshot     metadata snapshot to read versions and checksums from
+     * @param registry     modules to list
+     * @param fingerprints JAR fingerprints of the installed modules, or {@code null} if not computed
+     * @return the local snapshot
+     */
+    public static NodeSnapshot capture(final String node, final MetadataSnapshot snapshot, final ModuleRegistry registry,
+                                       final JarFingerprints fingerprints) {
+        final Map<String, Module> modules = new LinkedHashMap<>();
+        for (HellasModule module : registry.modules()) {
+            final ModMetadata metadata = snapshot.get(module.getModId());
+            final String jarHash = fingerprints != null ? fingerprints.get(module.getModId()).orElse("") : "";
+            modules.put(module.getModId(), metadata.isInstalled()
+                    ? new Module(module.getModId(), true, metadata.getVersion(), jarHash, metadata.getChecksum())
+                    : new Module(module.getModId(), false, "", "", ""));
+        }
+        return new NodeSnapshot(node, System.currentTimeMillis(), modules);
+    }
+
+    /**
+     * Decodes a snapshot without copying the buffer first.
+     *
+     * @param buffer encoded snapshot, read from its current position
+     * @return the decoded snapshot
+     * @throws IOException when the buffer does not hold a valid snapshot, carries a malformed JAR hash
+     *                     or exceeds {@value #MAX_BYTES} bytes
+     */
+    static NodeSnapshot decode(final ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() > MAX_BYTES) {
+            throw new IOException("Hellas node snapshot exceeds " + MAX_BYTES + " bytes");
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a Hellas node snapshot");
+            }
+            final int formatVersion = buffer.getShort();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported node snapshot format " + formatVersion);
+            }
+            buffer.getShort();
+
+            final long publishedMillis = buffer.getLong();
+            final String node = readString(buffer);
+            final int count = buffer.getInt();
+            final Map<String, Module> modules = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                final Module module = new Module(readString(buffer), buffer.get() != 0, readString(buffer),
+                        readString(buffer), readString(buffer));
+                if (!module.jarHash.isEmpty() && !Hashes.isHex(module.jarHash, JarFingerprints.HASH_LENGTH)) {
+                    throw new IOException("Invalid JAR hash for " + module.modId + " in Hellas node snapshot");
+                }
+                modules.put(module.getModId(), module);
+            }
+            return new NodeSnapshot(node, publishedMillis, modules);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IOException("Truncated Hellas node snapshot", ex);
+        }
+    }
+
+    /**
+     * @return the snapshot in its binary form
+     */
+    byte[] encode() {
+        int size = 4 + 2 + 2 + 8 + stringSize(node) + 4;
+        for (Module module : modules.values()) {
+            size += stringSize(module.modId) + 1 + stringSize(module.version) + stringSize(module.jarHash)
+                    + stringSize(module.metadataChecksum);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort((short) FORMAT_VERSION).putShort((short) 0).putLong(publishedMillis);
+        writeString(buffer, node);
+        buffer.putInt(modules.size());
+        for (Module module : modules.values()) {
+            writeString(buffer, module.modId);
+            buffer.put((byte) (module.installed ? 1 : 0));
+            writeString(buffer, module.version);
+            writeString(buffer, module.jarHash);
+            writeString(buffer, module.metadataChecksum);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param value string to measure
+     * @return encoded size of the string, including its length prefix
+     */
+    private static int stringSize(final String value) {
+        return 2 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * @param buffer destination
+     * @param value  string to write
+     */
+    private static void writeString(final ByteBuffer buffer, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for a node snapshot");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * @param buffer source, positioned at a length prefix
+     * @return the decoded string
+     */
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getShort() & 0xFFFF;
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return name of the node
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * @return wall-clock time the snapshot was published, in epoch milliseconds
+     */
+    public long getPublishedMillis() {
+        return publishedMillis;
+    }
+
+    /**
+     * @param modId id of the module
+     * @return the module's state on this node, or {@code null} if the node does not know the module
+     */
+    public Module get(final String modId) {
+        return modules.get(modId);
+    }
+
+    /**
+     * @return every module the node knows, in its registry order
+     */
+    public Collection<Module> getModules() {
+        return modules.values();
+    }
+
+    /**
+     * The state of one module on one node.
+     */
+    public static final class Module {
+        private final String modId;
+        private final boolean installed;
+        private final String version;
+        private final String jarHash;
+        private final String metadataChecksum;
+
+        private Module(final String modId, final boolean installed, final String version, final String jarHash,
+                       final String metadataChecksum) {
+            this.modId = modId;
+            this.installed = installed;
+            this.version = version;
+            this.jarHash = jarHash;
+            this.metadataChecksum = metadataChecksum;
+        }
+
+        /**
+         * @return id of the module
+         */
+        public String getModId() {
+            return modId;
+        }
+
+        /**
+         * @return {@code true} if the module is installed on the node
+         */
+        public boolean isInstalled() {
+            return installed;
+        }
+
+        /**
+         * @return installed version, empty if the module is missing
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @return hex SHA-256 of the module's JAR, empty if unknown
+         */
+        public String getJarHash() {
+            return jarHash;
+        }
+
+        /**
+         * @return checksum of the module's metadata entry, empty if the module is missing
+         */
+        public String getMetadataChecksum() {
+            return metadataChecksum;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.xsasakihaise.hellashelper.cluster;
+
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.module.JarFingerprints;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the shared {@link NodeDirectory} of the running server and renders
+ * {@code /hellas helper rollcall network} from it.
+ * <p>
+ * The directory is opened on first use from the {@code cluster} config
+ * section and closed when the server stops, so the next start picks up a
+ * changed configuration.
+ * </p>
+ */
+public final class SuiteCluster {
+    private static NodeDirectory directory;
+    private static boolean resolved;
+
+    private SuiteCluster() {
+    }
+
+    /**
+     * @return the shared node directory, or {@code null} if no shared directory is configured
+     */
+    public static synchronized NodeDirectory directory() {
+        if (!resolved) {
+            resolved = true;
+            final String path = HellasHelperConfig.CLUSTER_DIRECTORY.get().trim();
+            if (!path.isEmpty()) {
+                final String node = HellasHelperConfig.CLUSTER_NODE.get().trim();
+                directory = NodeDirectory.start(Paths.get(path), node.isEmpty() ? hostName() : node,
+                        HellasHelperConfig.CLUSTER_REFRESH_SECONDS.get());
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * @return name of the local host, used as the default node name
+     */
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Publishes the local node's suite state to the shared directory, if one
+     * is configured. The file is written in the background.
+     *
+     * @param snapshot     newly published metadata snapshot
+     * @param registry     modules to list
+     * @param fingerprints JAR fingerprints of the installed modules, or {@code null} if not computed
+     */
+    public static void publish(final MetadataSnapshot snapshot, final ModuleRegistry registry,
+                               final JarFingerprints fingerprints) {
+        final NodeDirectory current = directory();
+        if (current != null) {
+            current.publish(NodeSnapshot.capture(current.getNode(), snapshot, registry, fingerprints));
+        }
+    }
+
+    /**
+     * Closes the shared node directory, if one was opened.
+     */
+    public static synchronized void stop() {
+        if (directory != null) {
+            directory.close();
+            directory = null;
+        }
+        resolved = false;
+    }
+
+    /**
+     * Renders the modules whose state differs between the local node and the
+     * peers of the directory's last background scan.
+     *
+     * @param snapshot     metadata snapshot of the local node
+     * @param registry     modules of the local node, also used to resolve display names
+     * @param fingerprints JAR fingerprints of the local modules, or {@code null} if not computed
+     * @return header line followed by one line per differing module and a summary, or {@code null}
+     *         if no shared directory is configured
+     */
+    public static List<String> renderRollcall(final MetadataSnapshot snapshot, final ModuleRegistry registry,
+                                              final JarFingerprints fingerprints) {
+        final NodeDirectory current = directory();
+        if (current == null) {
+            return null;
+        }
+
+        final List<NodeSnapshot> network = new ArrayList<>();
+        network.add(NodeSnapshot.capture(current.getNode(), snapshot, registry, fingerprints));
+        network.addAll(current.getPeers());
+
+        final long now = System.currentTimeMillis();
+        final List<String> nodeNames = new ArrayList<>(network.size());
+        for (int i = 0; i < network.size(); i++) {
+            final NodeSnapshot node = network.get(i);
+            nodeNames.add(node.getNode() + (i == 0 ? " (this node)"
+                    : " (published " + age(now - node.getPublishedMillis()) + " ago)"));
+        }
+
+        final Set<String> modIds = new LinkedHashSet<>();
+        for (NodeSnapshot node : network) {
+            for (NodeSnapshot.Module module : node.getModules()) {
+                modIds.add(module.getModId());
+            }
+        }
+
+        final List<String> lines = new ArrayList<>();
+        lines.add("Hellas network rollcall across " + network.size() + " nodes: " + String.join(", ", nodeNames));
+        int identical = 0;
+        for (String modId : modIds) {
+            final String drift = drift(network, modId);
+            if (drift == null) {
+                identical++;
+                continue;
+            }
+
+            final List<String> cells = new ArrayList<>(network.size());
+            for (NodeSnapshot node : network) {
+                final NodeSnapshot.Module module = node.get(modId);
+                if (module == null || !module.isInstalled()) {
+                    cells.add(node.getNode() + " missing");
+                    continue;
+                }
+                final String jarHash = module.getJarHash();
+                cells.add(node.getNode() + " " + module.getVersion() + (jarHash.isEmpty() ? ""
+                        : " [" + jarHash.substring(0, Math.min(JarFingerprints.SHORT_LENGTH, jarHash.length())) + "]"));
+            }
+            lines.add("- " + registry.displayName(modId) + " (" + drift + "): " + String.join(", ", cells));
+        }
+
+        if (lines.size() == 1) {
+            lines.add("No drift: all " + identical + " modules match on every node.");
+        } else {
+            lines.add(identical + " modules match on every node.");
+        }
+        return lines;
+    }
+
+    /**
+     * Classifies how a module differs between nodes. Unknown hashes are not
+     * compared.
+     *
+     * @param network snapshots of every node
+     * @param modId   id of the module
+     * @return the kind of drift, or {@code null} if the module is the same everywhere
+     */
+    private static String drift(final List<NodeSnapshot> network, final String modId) {
+        final Set<Boolean> installed = new HashSet<>();
+        final Set<String> versions = new HashSet<>();
+        final Set<String> jars = new HashSet<>();
+        final Set<String> checksums = new HashSet<>();
+        for (NodeSnapshot node : network) {
+            final NodeSnapshot.Module module = node.get(modId);
+            final boolean present = module != null && module.isInstalled();
+            installed.add(present);
+            if (present) {
+                versions.add(module.getVersion());
+                if (!module.getJarHash().isEmpty()) {
+                    jars.add(module.getJarHash());
+                }
+                checksums.add(module.getMetadataChecksum());
+            }
+        }
+
+        if (installed.size() > 1) {
+            return "not installed everywhere";
+        }
+        if (versions.size() > 1) {
+            return "version drift";
+        }
+        if (jars.size() > 1) {
+            return "different builds";
+        }
+        if (checksums.size() > 1) {
+            return "metadata differs";
+        }
+        return null;
+    }
+
+    /**
+     * @param millis elapsed time in milliseconds
+     * @return the elapsed time in the largest whole unit among seconds, minutes, hours and days
+     */
+    private static String age(final long millis) {
+        final long seconds = TimeUnit.MILLISECONDS.toSeconds(Math.max(0L, millis));
+        if (seconds < 60L) {
+            return seconds + " s";
+        }
+        if (seconds < 3600L) {
+            return seconds / 60L + " min";
+        }
+        if (seconds < 86400L) {
+            return seconds / 3600L + " h";
+        }
+        return seconds / 86400L + " d";
+    }
+}
@@ -0,0 +1,255 @@
+package com.xsasakihaise.hellashelper.command;
+
+import com.xsasakihaise.hellashelper.stats.HelperMetrics;
+import net.minecraft.command.CommandSource;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.text.StringTextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-player rate limit in front of the {@code /hellas} handlers.
+ * <p>
+ * Every player gets one token bucket per configured subcommand, stored as the
+ * time at which the bucket will be full again (the generic cell rate
+ * algorithm). Admitting a command is a single compare-and-set on the player's
+ * slot for that subcommand, so players never contend with each other and no
+ * lock is taken. Limits are {@code subcommand=burst/seconds} entries: up to
+ * {@code burst} uses, refilled evenly over {@code seconds}; the {@code *}
+ * entry applies to subcommands without an entry of their own. Sources that are
+ * not players, such as the console, are never throttled.
+ * </p>
+ */
+final class CommandThrottle {
+    static final String DEFAULT_KEY = "*";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+    private static final int PRUNE_TICKS = 1200;
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Supplier<List<? extends String>> config;
+    private final LongSupplier clock;
+    private final long origin;
+    private final ConcurrentMap<UUID, AtomicLongArray> players = new ConcurrentHashMap<>();
+    private volatile Limits limits;
+    private int ticks;
+
+    /**
+     * @param config supplies the configured {@code subcommand=burst/seconds} entries
+     */
+    CommandThrottle(final Supplier<List<? extends String>> config) {
+        this(config, System::nanoTime);
+    }
+
+    /**
+     * @param config supplies the configured {@code subcommand=burst/seconds} entries
+     * @param clock  monotonic clock in nanoseconds
+     */
+    CommandThrottle(final Supplier<List<? extends String>> config, final LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Takes a token for a subcommand, replying with a failure when the source
+     * has none left.
+     *
+     * @param source     command source about to run the subcommand
+     * @param subcommand executed subcommand
+     * @return {@code true} if the command may run
+     */
+    boolean admit(final CommandSource source, final String subcommand) {
+        if (!(source.getEntity() instanceof ServerPlayerEntity)) {
+            return true;
+        }
+
+        final long wait = take(source.getEntity().getUUID(), subcommand);
+        if (wait > 0L) {
+            HelperMetrics.recordThrottled();
+            final long seconds = (wait + NANOS_PER_SECOND - 1L) / NANOS_PER_SECOND;
+            source.sendFailure(new StringTextComponent("You are using /hellas " + subcommand
+                    + " too often, please wait " + seconds + "s."));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes a token from a player's bucket for a subcommand.
+     *
+     * @param player     id of the player
+     * @param subcommand executed subcommand
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until the next one
+     */
+    long take(final UUID player, final String subcommand) {
+        final Limits current = limits();
+        final int slot = current.slot(subcommand);
+        final long interval = current.intervals[slot];
+        final long tolerance = current.tolerances[slot];
+        final AtomicLongArray buckets = players.computeIfAbsent(player,
+                id -> new AtomicLongArray(current.intervals.length));
+        if (slot >= buckets.length()) {
+            return 0L;
+        }
+
+        final long now = now();
+        while (true) {
+            final long full = buckets.get(slot);
+            final long start = full - now > 0L ? full : now;
+            final long wait = start - now - tolerance;
+            if (wait > 0L) {
+                return wait;
+            }
+            if (buckets.compareAndSet(slot, full, start + interval)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Counts a finished server tick and prunes idle players once every
+     * {@value #PRUNE_TICKS} ticks. Called on the server thread.
+     */
+    void onTick() {
+        if (++ticks % PRUNE_TICKS == 0) {
+            prune();
+        }
+    }
+
+    /**
+     * Forgets the players whose buckets are all full again, so the map only
+     * holds players that used a command recently.
+     */
+    void prune() {
+        final long now = now();
+        players.values().removeIf(buckets -> {
+            for (int i = 0; i < buckets.length(); i++) {
+                if (buckets.get(i) - now > 0L) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * @return number of players that currently have buckets
+     */
+    int players() {
+        return players.size();
+    }
+
+    /**
+     * @return nanoseconds since the throttle was created, so that a fresh bucket slot of zero reads as full
+     */
+    private long now() {
+        return clock.getAsLong() - origin;
+    }
+
+    /**
+     * Returns the parsed limits, parsing the config again when it was reloaded.
+     * Buckets are reset on a reload since their slots may have moved.
+     *
+     * @return the current limits
+     */
+    private Limits limits() {
+        final List<? extends String> entries = config.get();
+        Limits current = limits;
+        if (current == null || current.source != entries) {
+            current = Limits.parse(entries);
+            limits = current;
+            players.clear();
+        }
+        return current;
+    }
+
+    /**
+     * Limits parsed from the config, one slot per subcommand with the default
+     * in slot 0.
+     */
+    private static final class Limits {
+        private static final long DEFAULT_INTERVAL = TimeUnit.SECONDS.toNanos(1L);
+        private static final long DEFAULT_TOLERANCE = TimeUnit.SECONDS.toNanos(9L);
+
+        private final List<? extends String> source;
+        private final Map<String, Integer> slots;
+        private final long[] intervals;
+        private final long[] tolerances;
+
+        private Limits(final List<? extends String> source, final Map<String, Integer> slots,
+                       final long[] intervals, final long[] tolerances) {
+            this.source = source;
+            this.slots = slots;
+            this.intervals = intervals;
+            this.tolerances = tolerances;
+        }
+
+        /**
+         * @param entries configured {@code subcommand=burst/seconds} entries
+         * @return the parsed limits; malformed entries are logged and skipped
+         */
+        private static Limits parse(final List<? extends String> entries) {
+            final Map<String, Integer> slots = new HashMap<>();
+            final long[] intervals = new long[entries.size() + 1];
+            final long[] tolerances = new long[entries.size() + 1];
+            intervals[0] = DEFAULT_INTERVAL;
+            tolerances[0] = DEFAULT_TOLERANCE;
+            int count = 1;
+            for (String entry : entries) {
+                final int equals = entry.lastIndexOf('=');
+                final int slash = entry.indexOf('/', equals + 1);
+                try {
+                    if (equals <= 0 || slash < 0) {
+                        throw new NumberFormatException();
+                    }
+                    final String name = entry.substring(0, equals).trim();
+                    final int burst = Integer.parseInt(entry.substring(equals + 1, slash).trim());
+                    final long seconds = Long.parseLong(entry.substring(slash + 1).trim());
+                    if (burst < 1 || seconds < 1L) {
+                        throw new NumberFormatException();
+                    }
+
+                    final long interval = TimeUnit.SECONDS.toNanos(seconds) / burst;
+                    final int slot;
+                    if (DEFAULT_KEY.equals(name)) {
+                        slot = 0;
+                    } else {
+                        final Integer known = slots.get(name);
+                        slot = known != null ? known : count++;
+                        slots.put(name, slot);
+                    }
+                    intervals[slot] = interval;
+                    tolerances[slot] = interval * (burst - 1);
+                } catch (NumberFormatException ex) {
+                    LOGGER.warn("Ignoring malformed throttle limit \"{}\"; expected subcommand=burst/seconds.", entry);
+                }
+            }
+
+            final long[] trimmedIntervals = new long[count];
+            final long[] trimmedTolerances = new long[count];
+            System.arraycopy(intervals, 0, trimmedIntervals, 0, count);
+            System.arraycopy(tolerances, 0, trimmedTolerances, 0, count);
+            return new Limits(entries, slots, trimmedIntervals, trimmedTolerances);
+        }
+
+        /**
+         * @param subcommand executed subcommand
+         * @return slot of the subcommand's bucket, the default slot if it has no limit of its own
+         */
+        private int slot(final String subcommand) {
+            final Integer slot = slots.get(subcommand);
+            return slot == null ? 0 : slot;
+        }
+    }
+}
@@ -1,41 +1,62 @@
 package com.xsasakihaise.hellashelper.command;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.LiteralCommandNode;
+import com.xsasakihaise.hellashelper.HellasHelper;
+import com.xsasakihaise.hellashelper.cluster.SuiteCluster;
+import com.xsasakihaise.hellashelper.command.MetadataCommandExecutor.Reply;
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.dependency.DependencyGraph;
+import com.xsasakihaise.hellashelper.dependency.SuiteDependencies;
+import com.xsasakihaise.hellashelper.http.SuiteStatus;
+import com.xsasakihaise.hellashelper.metadata.MetadataLoader;
+import com.xsasakihaise.hellashelper.metadata.MetadataRepository;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.MetadataWatcher;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.module.HellasModule;
+import com.xsasakihaise.hellashelper.module.JarFingerprints;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+import com.xsasakihaise.hellashelper.module.SuiteFingerprints;
+import com.xsasakihaise.hellashelper.profiler.ModuleProfiler;
+import com.xsasakihaise.hellashelper.profiler.SuiteProfiler;
+import com.xsasakihaise.hellashelper.search.SearchIndex;
+import com.xsasakihaise.hellashelper.search.SuiteSearch;
+import com.xsasakihaise.hellashelper.stats.HelperMetrics;
+import com.xsasakihaise.hellashelper.stats.StartupTimeline;
+import com.xsasakihaise.hellashelper.sync.MetadataSync;
+import com.xsasakihaise.hellashelper.sync.SuiteBundle;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.fml.ModList;
-import net.minecraftforge.fml.ModContainer;
-import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
+import net.minecraftforge.fml.loading.FMLPaths;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Registers {@code /hellas} commands that expose metadata for Hellas suite mods.
  * <p>
  * The Helper mod acts as a centralized information hub for players and staff.
- * This registrar inspects the installed Hellas mods and dynamically exposes
- * subcommands for each of them. Each subcommand can report the installed
+ * This registrar exposes subcommands for every module in the
+ * {@link ModuleRegistry}, which is discovered from the installed mods. Each subcommand can report the installed
  * version, declared dependencies, and a human-friendly list of features that
  * is stored in {@code config/<modid>.json} files within the respective mod JARs.
  * </p>
@@ -43,32 +64,122 @@ import java.util.Optional;
 public final class HellasCommandRegistrar {
     private static final Logger LOGGER = LogManager.getLogger();
 
-    private static final List<ModCommandDefinition> MODS = Collections.unmodifiableList(Arrays.asList(
-            new ModCommandDefinition("HellasAudio", "hellasaudio"),
-            new ModCommandDefinition("HellasBattlebuddy", "hellasbattlebuddy"),
-            new ModCommandDefinition("HellasControl", "hellascontrol"),
-            new ModCommandDefinition("HellasDeck", "hellasdeck"),
-            new ModCommandDefinition("HellasElo", "hellaselo"),
-            new ModCommandDefinition("HellasForms", "hellasforms"),
-            new ModCommandDefinition("HellasGardens", "hellasgardens"),
-            new ModCommandDefinition("HellasHelper", "hellashelper", "helper", true),
-            new ModCommandDefinition("HellasLibrary", "hellaslibrary"),
-            new ModCommandDefinition("HellasMineralogy", "hellasmineralogy"),
-            new ModCommandDefinition("HellasPatcher", "hellaspatcher"),
-            new ModCommandDefinition("HellasTextures", "hellastextures"),
-            new ModCommandDefinition("HellasWilds", "hellaswilds")
-    ));
+    private static final ResponseRenderer RESPONSES = new ResponseRenderer();
+    private static final CommandThrottle THROTTLE = new CommandThrottle(HellasHelperConfig.THROTTLE_LIMITS::get);
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final ThreadPoolExecutor REBUILDS = newRebuildExecutor();
+
+    private static ModuleRegistry modules;
+    private static MetadataRepository metadata;
+    private static MetadataWatcher watcher;
 
     private HellasCommandRegistrar() {
     }
 
+    /**
+     * Fingerprints the module JARs and builds the metadata snapshot for every
+     * known Hellas mod so that command executions never have to touch the mod
+     * JARs themselves.
+     */
+    public static void preloadMetadata() {
+        StartupTimeline.time("jar fingerprints", () -> SuiteFingerprints.compute(modules().modules(),
+                dataDirectory().resolve("fingerprints.bin")));
+        StartupTimeline.time("metadata preload", () -> metadata().preload());
+    }
+
+    /**
+     * Appends the startup timing of this boot to the history kept in the
+     * helper's data directory.
+     */
+    public static void completeStartup() {
+        StartupTimeline.complete(dataDirectory().resolve("startup-history.json"));
+    }
+
+    /**
+     * Starts reloading metadata whenever a file in the override directory
+     * changes, if enabled in the config.
+     */
+    public static synchronized void watchMetadataOverrides() {
+        if (watcher != null || !HellasHelperConfig.WATCH_OVERRIDES.get()) {
+            return;
+        }
+
+        try {
+            watcher = MetadataWatcher.start(overrideDirectory(), metadata());
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to watch {} for metadata overrides.", overrideDirectory(), ex);
+        }
+    }
+
+    /**
+     * Starts the read-only status endpoint, if enabled in the config.
+     */
+    public static void startStatusEndpoint() {
+        SuiteStatus.start(metadata(), modules());
+    }
+
+    /**
+     * Stops the endpoint started by {@link #startStatusEndpoint()}.
+     */
+    public static void stopStatusEndpoint() {
+        SuiteStatus.stop();
+    }
+
+    /**
+     * Stops the override watcher started by {@link #watchMetadataOverrides()}.
+     */
+    public static synchronized void stopWatchingMetadata() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Starts sampling the server thread for {@code /hellas <mod> perf}, if
+     * enabled in the config.
+     *
+     * @param serverThread the thread running the server ticks
+     */
+    public static void startProfiler(final Thread serverThread) {
+        SuiteProfiler.start(serverThread, modules());
+    }
+
+    /**
+     * Counts a finished server tick for the profiler, if it is running, and
+     * periodically forgets idle players from the command rate limit.
+     */
+    public static void onServerTick() {
+        SuiteProfiler.onTick();
+        THROTTLE.onTick();
+    }
+
+    /**
+     * Stops the profiler started by {@link #startProfiler(Thread)}.
+     */
+    public static void stopProfiler() {
+        SuiteProfiler.stop();
+    }
+
     /**
      * Entrypoint for Forge's command registration event.
      *
      * @param event the command registration event fired during server startup
      */
     public static void register(final RegisterCommandsEvent event) {
-        final CommandDispatcher<CommandSource> dispatcher = event.getDispatcher();
+        register(event.getDispatcher(), modules(), metadata());
+    }
+
+    /**
+     * Installs the {@code /hellas} tree into a dispatcher, with one subtree
+     * per registry module, serving metadata from the supplied repository.
+     *
+     * @param dispatcher dispatcher that receives the command tree
+     * @param registry   modules to expose
+     * @param repository repository the command handlers read metadata from
+     */
+    static void register(final CommandDispatcher<CommandSource> dispatcher, final ModuleRegistry registry,
+                         final MetadataRepository repository) {
         LiteralCommandNode<CommandSource> hellasRoot = getLiteralChild(dispatcher.getRoot(), "hellas");
 
         if (hellasRoot == null) {
@@ -80,16 +191,114 @@ public final class HellasCommandRegistrar {
             return;
         }
 
-        for (ModCommandDefinition mod : MODS) {
-            final LiteralCommandNode<CommandSource> modNode = findOrCreateModNode(hellasRoot, mod.commandLiteral);
+        for (HellasModule module : registry.modules()) {
+            final LiteralCommandNode<CommandSource> modNode = findOrCreateModNode(hellasRoot, module.getCommandLiteral());
             if (modNode == null) {
                 continue;
             }
 
-            registerMetadataCommands(modNode, mod);
+            registerMetadataCommands(modNode, module, registry, repository);
+        }
+
+        registerSearchCommand(hellasRoot, registry, repository);
+    }
+
+    /**
+     * Scans the mod list on first use. Discovery is deferred until the server
+     * starts so that the {@code modules} config section has been loaded.
+     *
+     * @return the module registry
+     */
+    private static synchronized ModuleRegistry modules() {
+        if (modules == null) {
+            modules = ModuleRegistry.discover(ModList.get(), HellasHelperConfig.MODULE_ID_PREFIX.get(),
+                    HellasHelperConfig.EXPECTED_MODULES.get());
+        }
+        return modules;
+    }
+
+    /**
+     * @return the repository serving metadata for every registry module
+     */
+    private static synchronized MetadataRepository metadata() {
+        if (metadata == null) {
+            final ModuleRegistry registry = modules();
+            metadata = new MetadataRepository(new MetadataLoader(registry, overrideDirectory(),
+                    HellasHelperConfig.MAX_DOCUMENT_BYTES::get, HellasHelperConfig.MAX_ENTRIES::get), registry.modIds());
+            final MetadataRepository repository = metadata;
+            repository.addListener(snapshot -> REBUILDS.execute(() -> rebuild(repository, snapshot, registry)));
+        }
+        return metadata;
+    }
+
+    /**
+     * Rebuilds everything derived from a newly published snapshot: the search
+     * index, the dependency graph, the status document, the node snapshot and
+     * the sync bundle. Runs on the rebuild thread, one snapshot after the
+     * other, and skips snapshots that were already superseded.
+     *
+     * @param repository repository that published the snapshot
+     * @param snapshot   newly published snapshot
+     * @param registry   modules of the command tree
+     */
+    private static void rebuild(final MetadataRepository repository, final MetadataSnapshot snapshot,
+                                final ModuleRegistry registry) {
+        if (repository.peek() != snapshot) {
+            return;
+        }
+
+        try {
+            SuiteSearch.index(snapshot);
+            SuiteDependencies.graph(snapshot, registry);
+            SuiteStatus.onSnapshot(snapshot);
+            SuiteCluster.publish(snapshot, registry, SuiteFingerprints.get());
+            if (HellasHelperConfig.SYNC_ENABLED.get()) {
+                MetadataSync.publish(SuiteBundle.build(snapshot, registry, HellasHelperConfig.FEATURES_PAGE_SIZE.get()));
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Unable to rebuild the data derived from a metadata snapshot.", ex);
         }
     }
 
+    /**
+     * @return a single daemon thread that runs the snapshot rebuilds in order
+     *         and exits when idle
+     */
+    private static ThreadPoolExecutor newRebuildExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "HellasHelper-Rebuild");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Stops the background thread of the shared node directory, if one was
+     * opened. The directory is opened again on the next server start.
+     */
+    public static void stopNodeDirectory() {
+        SuiteCluster.stop();
+    }
+
+    /**
+     * @return the server-side {@code config/hellashelper/} directory whose
+     *         {@code <modid>.json} files shadow the bundled metadata
+     */
+    private static Path overrideDirectory() {
+        return FMLPaths.CONFIGDIR.get().resolve(HellasHelper.MOD_ID);
+    }
+
+    /**
+     * @return the {@code hellashelper/} directory in the game directory, which
+     *         holds the files the helper writes itself
+     */
+    private static Path dataDirectory() {
+        return FMLPaths.GAMEDIR.get().resolve(HellasHelper.MOD_ID);
+    }
+
     /**
      * Attempts to retrieve a literal child node with the given name.
      *
@@ -128,311 +337,377 @@ public final class HellasCommandRegistrar {
     /**
      * Creates the metadata subcommands for the supplied mod definition.
      *
-     * @param modNode the literal node representing the mod's subcommand tree
-     * @param mod     metadata describing how to interact with the mod
+     * @param modNode    the literal node representing the mod's subcommand tree
+     * @param mod        module the subcommands describe
+     * @param registry   every exposed module, used by the suite-wide subcommands
+     * @param repository repository the handlers read metadata from
      */
     private static void registerMetadataCommands(final LiteralCommandNode<CommandSource> modNode,
-                                                  final ModCommandDefinition mod) {
+                                                  final HellasModule mod,
+                                                  final ModuleRegistry registry,
+                                                  final MetadataRepository repository) {
         if (modNode.getChild("version") == null) {
             modNode.addChild(Commands.literal("version")
-                    .executes(context -> sendVersion(context.getSource(), mod))
+                    .executes(throttled("version", context -> MetadataCommandExecutor.execute(context.getSource(),
+                            repository, mod.getModId(), "version", "", snapshot -> sendVersion(snapshot, mod))))
                     .build());
         }
 
         if (modNode.getChild("dependencies") == null) {
             modNode.addChild(Commands.literal("dependencies")
-                    .executes(context -> sendDependencies(context.getSource(), mod))
+                    .executes(throttled("dependencies", context -> MetadataCommandExecutor.execute(context.getSource(),
+                            repository, mod.getModId(), "dependencies", "", snapshot -> sendDependencies(snapshot, mod))))
                     .build());
         }
 
         if (modNode.getChild("features") == null) {
             modNode.addChild(Commands.literal("features")
-                    .executes(context -> sendFeatures(context.getSource(), mod))
+                    .executes(throttled("features", context -> MetadataCommandExecutor.execute(context.getSource(),
+                            repository, mod.getModId(), "features", "1", snapshot -> sendFeatures(snapshot, mod, 1))))
+                    .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                            .suggests((context, builder) -> suggestPages(builder, mod, repository))
+                            .executes(throttled("features", context -> {
+                                final int page = IntegerArgumentType.getInteger(context, "page");
+                                return MetadataCommandExecutor.execute(context.getSource(), repository,
+                                        mod.getModId(), "features", Integer.toString(page),
+                                        snapshot -> sendFeatures(snapshot, mod, page));
+                            })))
                     .build());
         }
 
-        if (mod.rollcall && modNode.getChild("rollcall") == null) {
+        if (modNode.getChild("perf") == null) {
+            modNode.addChild(Commands.literal("perf")
+                    .executes(throttled("perf", context -> sendPerf(context.getSource(), mod)))
+                    .build());
+        }
+
+        if (mod.isHelper() && modNode.getChild("rollcall") == null) {
             modNode.addChild(Commands.literal("rollcall")
-                    .executes(context -> runRollcall(context.getSource()))
+                    .executes(throttled("rollcall", context -> MetadataCommandExecutor.execute(context.getSource(),
+                            repository, mod.getModId(), "rollcall", "", snapshot -> runRollcall(snapshot, registry))))
+                    .then(Commands.literal("network")
+                            .executes(throttled("rollcall network", context -> MetadataCommandExecutor.execute(
+                                    context.getSource(), repository, mod.getModId(), "rollcall network", "",
+                                    snapshot -> runNetworkRollcall(snapshot, registry)))))
                     .build());
         }
-    }
 
-    /**
-     * Sends the resolved version information for the requested mod.
-     *
-     * @param source destination for feedback messages
-     * @param mod    definition for the mod being queried
-     * @return brigadier command result
-     */
-    private static int sendVersion(final CommandSource source, final ModCommandDefinition mod) {
-        if (!isModPresent(mod)) {
-            source.sendFailure(new StringTextComponent(mod.displayName + " is not present on this server."));
-            return 0;
+        if (mod.isHelper() && modNode.getChild("depcheck") == null) {
+            modNode.addChild(Commands.literal("depcheck")
+                    .executes(throttled("depcheck", context -> MetadataCommandExecutor.execute(context.getSource(),
+                            repository, mod.getModId(), "depcheck", "", snapshot -> runDepcheck(snapshot, registry))))
+                    .build());
         }
 
-        final Optional<ModMetadata> metadata = loadMetadata(mod);
-        final String version = metadata.map(ModMetadata::getVersion)
-                .orElseGet(() -> resolveInstalledVersion(mod).orElse("Unknown"));
+        if (mod.isHelper() && modNode.getChild("startup") == null) {
+            modNode.addChild(Commands.literal("startup")
+                    .executes(throttled("startup", context -> sendStartup(context.getSource())))
+                    .build());
+        }
 
-        source.sendSuccess(new StringTextComponent(mod.displayName + " version: " + version), false);
-        return Command.SINGLE_SUCCESS;
+        if (mod.isHelper() && modNode.getChild("stats") == null) {
+            modNode.addChild(Commands.literal("stats")
+                    .executes(throttled("stats", context -> sendStats(context.getSource())))
+                    .build());
+        }
     }
 
     /**
-     * Outputs the dependency declarations parsed from the mod's metadata file.
+     * Puts a handler behind the per-player rate limit of its subcommand.
      *
-     * @param source destination for feedback messages
-     * @param mod    definition for the mod being queried
-     * @return brigadier command result
+     * @param subcommand subcommand whose limit applies
+     * @param command    handler that runs when the player has a token left
+     * @return the throttled handler
      */
-    private static int sendDependencies(final CommandSource source, final ModCommandDefinition mod) {
-        if (!isModPresent(mod)) {
-            source.sendFailure(new StringTextComponent(mod.displayName + " is not present on this server."));
-            return 0;
-        }
-
-        final Optional<ModMetadata> metadata = loadMetadata(mod);
-        if (!metadata.isPresent() || metadata.get().getDependencies().isEmpty()) {
-            source.sendSuccess(new StringTextComponent("No dependency information available for " + mod.displayName + '.'), false);
-            return Command.SINGLE_SUCCESS;
-        }
-
-        source.sendSuccess(new StringTextComponent(mod.displayName + " dependencies:"), false);
-        for (String dependency : metadata.get().getDependencies()) {
-            source.sendSuccess(new StringTextComponent(dependency), false);
-        }
-        return Command.SINGLE_SUCCESS;
+    private static Command<CommandSource> throttled(final String subcommand, final Command<CommandSource> command) {
+        return context -> THROTTLE.admit(context.getSource(), subcommand) ? command.run(context) : 0;
     }
 
     /**
-     * Outputs the feature highlights declared in the mod's metadata file.
+     * Creates {@code /hellas search <terms>}, which searches the features and
+     * dependencies of every installed module at once.
      *
-     * @param source destination for feedback messages
-     * @param mod    definition for the mod being queried
-     * @return brigadier command result
+     * @param hellasRoot the {@code /hellas} root literal node
+     * @param registry   modules used to resolve display names
+     * @param repository repository the handler reads metadata from
      */
-    private static int sendFeatures(final CommandSource source, final ModCommandDefinition mod) {
-        if (!isModPresent(mod)) {
-            source.sendFailure(new StringTextComponent(mod.displayName + " is not present on this server."));
-            return 0;
+    private static void registerSearchCommand(final LiteralCommandNode<CommandSource> hellasRoot,
+                                              final ModuleRegistry registry,
+                                              final MetadataRepository repository) {
+        if (hellasRoot.getChild("search") != null) {
+            return;
         }
 
-        final Optional<ModMetadata> metadata = loadMetadata(mod);
-        if (!metadata.isPresent() || metadata.get().getFeatures().isEmpty()) {
-            source.sendSuccess(new StringTextComponent("No feature information available for " + mod.displayName + '.'), false);
-            return Command.SINGLE_SUCCESS;
-        }
+        hellasRoot.addChild(Commands.literal("search")
+                .then(Commands.argument("terms", StringArgumentType.greedyString())
+                        .suggests((context, builder) -> suggestTerms(builder, repository))
+                        .executes(throttled("search", context -> {
+                            final String terms = StringArgumentType.getString(context, "terms");
+                            return MetadataCommandExecutor.execute(context.getSource(), repository,
+                                    HellasHelper.MOD_ID, "search", terms,
+                                    snapshot -> sendSearch(snapshot, registry, terms));
+                        })))
+                .build());
+    }
 
-        source.sendSuccess(new StringTextComponent(mod.displayName + " features:"), false);
-        for (String feature : metadata.get().getFeatures()) {
-            source.sendSuccess(new StringTextComponent(feature), false);
-        }
-        return Command.SINGLE_SUCCESS;
+    /**
+     * Completes the word being typed in {@code /hellas search <terms>} from
+     * the keyword trie of the current snapshot. Suggestions are answered from
+     * the published snapshot only and are empty while it is still loading.
+     *
+     * @param builder    suggestion builder for the argument
+     * @param repository repository providing the metadata snapshot
+     * @return the suggestions
+     */
+    private static CompletableFuture<Suggestions> suggestTerms(final SuggestionsBuilder builder,
+                                                               final MetadataRepository repository) {
+        final MetadataSnapshot snapshot = repository.peek();
+        if (snapshot == null) {
+            return Suggestions.empty();
+        }
+
+        final String remaining = builder.getRemaining();
+        final int wordStart = remaining.lastIndexOf(' ') + 1;
+        final SuggestionsBuilder word = builder.createOffset(builder.getStart() + wordStart);
+        SuiteSearch.index(snapshot).getKeywords().complete(remaining, wordStart, MAX_SUGGESTIONS, word::suggest);
+        return word.buildFuture();
     }
 
     /**
-     * Executes the {@code /hellas helper rollcall} command which lists the
-     * installation status of every known Hellas module.
+     * Suggests the feature page numbers available for a module.
      *
-     * @param source command sender that will receive rollcall output
-     * @return brigadier command result
+     * @param builder    suggestion builder for the argument
+     * @param mod        module being queried
+     * @param repository repository providing the metadata snapshot
+     * @return the suggestions
      */
-    private static int runRollcall(final CommandSource source) {
-        source.sendSuccess(new StringTextComponent("Hellas suite rollcall:"), false);
-        for (ModCommandDefinition mod : MODS) {
-            if (!isModPresent(mod)) {
-                source.sendSuccess(new StringTextComponent("- " + mod.displayName + ": missing"), false);
-                continue;
+    private static CompletableFuture<Suggestions> suggestPages(final SuggestionsBuilder builder, final HellasModule mod,
+                                                               final MetadataRepository repository) {
+        final MetadataSnapshot snapshot = repository.peek();
+        if (snapshot == null) {
+            return Suggestions.empty();
+        }
+
+        final int pages = ResponseRenderer.pageCount(snapshot.get(mod.getModId()).getFeatures().size(),
+                HellasHelperConfig.FEATURES_PAGE_SIZE.get());
+        final String remaining = builder.getRemaining();
+        for (int page = 1; page <= Math.min(pages, MAX_SUGGESTIONS); page++) {
+            if (Integer.toString(page).startsWith(remaining)) {
+                builder.suggest(page);
             }
-
-            final String version = loadMetadata(mod)
-                    .map(ModMetadata::getVersion)
-                    .orElseGet(() -> resolveInstalledVersion(mod).orElse("Unknown"));
-            source.sendSuccess(new StringTextComponent("- " + mod.displayName + ": " + version), false);
         }
-        return Command.SINGLE_SUCCESS;
+        return builder.buildFuture();
     }
 
     /**
-     * Checks whether the provided Hellas mod is currently loaded in this runtime.
+     * Renders the feature and dependency lines that best match the search terms.
      *
-     * @param mod definition of the mod to check
-     * @return {@code true} if the mod is available, {@code false} otherwise
+     * @param snapshot metadata snapshot to read from
+     * @param registry modules used to resolve display names
+     * @param terms    free-text search terms
+     * @return the reply
      */
-    private static boolean isModPresent(final ModCommandDefinition mod) {
-        return ModList.get().isLoaded(mod.modId);
+    private static Reply sendSearch(final MetadataSnapshot snapshot,
+                                    final ModuleRegistry registry, final String terms) {
+        final List<SearchIndex.Hit> hits = SuiteSearch.index(snapshot).search(terms, HellasHelperConfig.SEARCH_RESULTS.get());
+        if (hits.isEmpty()) {
+            return Reply.failure("No Hellas features match \"" + terms + "\".");
+        }
+
+        final List<String> lines = new ArrayList<>(hits.size());
+        for (SearchIndex.Hit hit : hits) {
+            final String name = registry.displayName(hit.getModId());
+            lines.add("- " + name + (hit.isDependency() ? " (dependency): " : ": ") + hit.getText());
+        }
+        return Reply.success(ResponseRenderer.lines("Search results for \"" + terms + "\":", lines));
     }
 
     /**
-     * Attempts to read the installed version number directly from Forge's
-     * mod container if the metadata file does not provide it.
+     * Renders the resolved version information for the requested mod.
      *
-     * @param mod definition for the mod being queried
-     * @return optional version string if the container is available
+     * @param snapshot metadata snapshot to read from
+     * @param mod      module being queried
+     * @return the reply
      */
-    private static Optional<String> resolveInstalledVersion(final ModCommandDefinition mod) {
-        final Optional<? extends ModContainer> container = ModList.get().getModContainerById(mod.modId);
-        return container.map(value -> value.getModInfo().getVersion().toString());
+    private static Reply sendVersion(final MetadataSnapshot snapshot,
+                                     final HellasModule mod) {
+        final ModMetadata metadata = snapshot.get(mod.getModId());
+        if (!metadata.isInstalled()) {
+            return Reply.failure(mod.getDisplayName() + " is not present on this server.");
+        }
+
+        return Reply.success(RESPONSES.version(mod.getModId(), mod.getDisplayName(), metadata));
     }
 
     /**
-     * Loads the JSON metadata document bundled inside the target mod.
-     * <p>
-     * The document is expected to live under {@code config/<modid>.json} and
-     * can include the version, dependencies, and a set of friendly feature
-     * descriptions. Invalid or missing files are tolerated and result in an
-     * empty {@link Optional}.
-     * </p>
+     * Renders the dependency declarations parsed from the mod's metadata file.
      *
-     * @param mod definition describing the metadata file to load
-     * @return optional metadata representation
+     * @param snapshot metadata snapshot to read from
+     * @param mod      module being queried
+     * @return the reply
      */
-    private static Optional<ModMetadata> loadMetadata(final ModCommandDefinition mod) {
-        if (!isModPresent(mod)) {
-            return Optional.empty();
+    private static Reply sendDependencies(final MetadataSnapshot snapshot,
+                                          final HellasModule mod) {
+        final ModMetadata metadata = snapshot.get(mod.getModId());
+        if (!metadata.isInstalled()) {
+            return Reply.failure(mod.getDisplayName() + " is not present on this server.");
         }
 
-        final ModFileInfo fileInfo = ModList.get().getModFileById(mod.modId);
-        if (fileInfo == null) {
-            LOGGER.debug("No mod file information available for {}.", mod.modId);
-            return Optional.empty();
-        }
+        return Reply.success(RESPONSES.dependencies(mod.getModId(), mod.getDisplayName(), metadata));
+    }
 
-        final Path metadataPath = fileInfo.getFile().findResource("config/" + mod.metadataFile);
-        if (metadataPath == null) {
-            LOGGER.debug("No metadata file found for {} at config/{}.", mod.modId, mod.metadataFile);
-            return Optional.empty();
+    /**
+     * Renders one page of the feature highlights declared in the mod's metadata file.
+     *
+     * @param snapshot metadata snapshot to read from
+     * @param mod      module being queried
+     * @param page     one-based page number to display
+     * @return the reply
+     */
+    private static Reply sendFeatures(final MetadataSnapshot snapshot,
+                                      final HellasModule mod, final int page) {
+        final ModMetadata metadata = snapshot.get(mod.getModId());
+        if (!metadata.isInstalled()) {
+            return Reply.failure(mod.getDisplayName() + " is not present on this server.");
         }
 
-        if (!Files.exists(metadataPath)) {
-            LOGGER.debug("Metadata path {} for {} does not exist.", metadataPath, mod.modId);
-            return Optional.empty();
+        final int pageSize = HellasHelperConfig.FEATURES_PAGE_SIZE.get();
+        final int pages = ResponseRenderer.pageCount(metadata.getFeatures().size(), pageSize);
+        if (page > pages) {
+            return Reply.failure(mod.getDisplayName() + " only has " + pages + " feature page(s).");
         }
 
-        try (BufferedReader reader = Files.newBufferedReader(metadataPath, StandardCharsets.UTF_8)) {
-            final JsonElement element = new JsonParser().parse(reader);
-            if (!element.isJsonObject()) {
-                LOGGER.warn("Metadata for {} is not a JSON object.", mod.modId);
-                return Optional.empty();
-            }
-
-            final JsonObject object = element.getAsJsonObject();
-            final String version = readString(object, "version")
-                    .orElseGet(() -> resolveInstalledVersion(mod).orElse("Unknown"));
-            final List<String> dependencies = readStringArray(object.get("dependencies"));
-            final List<String> features = readStringArray(object.get("features"));
-
-            return Optional.of(new ModMetadata(version, dependencies, features));
-        } catch (IOException | RuntimeException ex) {
-            LOGGER.warn("Failed to read metadata for {}", mod.modId, ex);
-            return Optional.empty();
-        }
+        return Reply.success(RESPONSES.features(mod.getModId(), mod.getDisplayName(), mod.getCommandLiteral(), metadata, page, pageSize));
     }
 
     /**
-     * Reads a string property from the supplied JSON object.
+     * Executes the {@code /hellas helper rollcall} command which lists the
+     * installation status of every known Hellas module.
      *
-     * @param object object to inspect
-     * @param key    property name
-     * @return optional string value when the key is present and primitive
+     * @param snapshot metadata snapshot to read from
+     * @param registry modules to list
+     * @return the reply
      */
-    private static Optional<String> readString(final JsonObject object, final String key) {
-        if (!object.has(key)) {
-            return Optional.empty();
-        }
-
-        final JsonElement element = object.get(key);
-        if (!element.isJsonPrimitive()) {
-            return Optional.empty();
-        }
+    private static Reply runRollcall(final MetadataSnapshot snapshot,
+                                     final ModuleRegistry registry) {
+        return Reply.success(RESPONSES.composite("rollcall", snapshot, () -> renderRollcall(snapshot, registry)));
+    }
 
-        return Optional.of(element.getAsString());
+    /**
+     * Executes the {@code /hellas helper rollcall network} command which
+     * compares the suite state of every node sharing the cluster directory.
+     * The peers come from the directory's last background scan, so the
+     * command itself never touches the shared directory.
+     *
+     * @param snapshot metadata snapshot of the local node
+     * @param registry modules of the local node
+     * @return the reply
+     */
+    private static Reply runNetworkRollcall(final MetadataSnapshot snapshot,
+                                            final ModuleRegistry registry) {
+        final List<String> lines = SuiteCluster.renderRollcall(snapshot, registry, SuiteFingerprints.get());
+        if (lines == null) {
+            return Reply.failure("No shared directory is configured; set cluster.sharedDirectory "
+                    + "in hellashelper-common.toml on every server.");
+        }
+        return Reply.success(ResponseRenderer.lines(lines.get(0), lines.subList(1, lines.size())));
     }
 
     /**
-     * Converts a JSON array into an immutable list of strings.
+     * Executes the {@code /hellas helper depcheck} command which checks the
+     * declared dependencies of every installed module against the installed
+     * versions.
      *
-     * @param element JSON element to convert
-     * @return list of string values, or an empty list when the element is null/invalid
+     * @param snapshot metadata snapshot to read from
+     * @param registry modules to check
+     * @return the reply
      */
-    private static List<String> readStringArray(final JsonElement element) {
-        if (element == null || !element.isJsonArray()) {
-            return Collections.emptyList();
-        }
+    private static Reply runDepcheck(final MetadataSnapshot snapshot,
+                                     final ModuleRegistry registry) {
+        final DependencyGraph graph = SuiteDependencies.graph(snapshot, registry);
+        return Reply.success(RESPONSES.composite("depcheck", graph, () -> SuiteDependencies.render(graph, registry)));
+    }
 
-        final JsonArray array = element.getAsJsonArray();
-        final List<String> values = new ArrayList<>(array.size());
-        for (JsonElement entry : array) {
-            if (entry.isJsonPrimitive()) {
-                values.add(entry.getAsString());
-            }
-        }
-        return values;
+    /**
+     * Executes the {@code /hellas helper stats} command which reports the
+     * helper's own command latencies, metadata load times and cache counters.
+     *
+     * @param source command sender that will receive the report
+     * @return brigadier command result
+     */
+    private static int sendStats(final CommandSource source) {
+        final List<String> lines = HelperMetrics.render();
+        source.sendSuccess(ResponseRenderer.lines(lines.get(0), lines.subList(1, lines.size())), false);
+        return Command.SINGLE_SUCCESS;
     }
 
     /**
-     * Describes how to expose a specific Hellas mod via the {@code /hellas}
-     * command tree. Each definition includes the mod id, a friendly display
-     * name, and the literal that users type to reach it.
+     * Executes the {@code /hellas helper startup} command which compares the
+     * startup timing of this boot with the previous boots.
+     *
+     * @param source command sender that will receive the report
+     * @return brigadier command result
      */
-    private static final class ModCommandDefinition {
-        private final String displayName;
-        private final String modId;
-        private final String commandLiteral;
-        private final String metadataFile;
-        private final boolean rollcall;
+    private static int sendStartup(final CommandSource source) {
+        final List<String> lines = StartupTimeline.render();
+        source.sendSuccess(ResponseRenderer.lines(lines.get(0), lines.subList(1, lines.size())), false);
+        return Command.SINGLE_SUCCESS;
+    }
 
-        private ModCommandDefinition(final String displayName, final String modId) {
-            this(displayName, modId, false);
+    /**
+     * Executes the {@code /hellas <mod> perf} command which reports the server
+     * thread time the profiler attributed to a module.
+     *
+     * @param source command sender that will receive the report
+     * @param mod    module being queried
+     * @return brigadier command result
+     */
+    private static int sendPerf(final CommandSource source, final HellasModule mod) {
+        final ModuleProfiler current = SuiteProfiler.get();
+        if (current == null) {
+            source.sendFailure(new StringTextComponent("The Hellas profiler is not running; enable profiler.enabled in "
+                    + "hellashelper-common.toml and restart the server."));
+            return 0;
         }
 
-        private ModCommandDefinition(final String displayName, final String modId, final boolean rollcall) {
-            this(displayName, modId, modId, rollcall);
+        final ModuleProfiler.Report report = current.report(mod.getModId());
+        if (report == null) {
+            source.sendFailure(new StringTextComponent(mod.getDisplayName() + " is not present on this server."));
+            return 0;
         }
 
-        private ModCommandDefinition(final String displayName, final String modId, final String commandLiteral, final boolean rollcall) {
-            this.displayName = Objects.requireNonNull(displayName);
-            this.modId = Objects.requireNonNull(modId);
-            this.commandLiteral = Objects.requireNonNull(commandLiteral);
-            this.metadataFile = modId + ".json";
-            this.rollcall = rollcall;
-        }
+        final List<String> lines = new ArrayList<>(3);
+        lines.add(String.format(Locale.ROOT, "- %.2f ms/tick over %d ticks (%.1f%% of samples)",
+                report.getMillisPerTick(), report.getTicks(), report.getShare() * 100.0D));
+        lines.add(String.format(Locale.ROOT, "- %.1f samples/s at one sample every %d ms",
+                report.getHitsPerSecond(), current.getIntervalMillis()));
+        lines.add("- Worst tick: ~" + report.getWorstTickMillis() + " ms");
+        source.sendSuccess(ResponseRenderer.lines(mod.getDisplayName() + " server thread time (last "
+                + report.getSeconds() + " s):", lines), false);
+        return Command.SINGLE_SUCCESS;
     }
 
     /**
-     * Immutable DTO that represents the metadata file payload for a specific mod.
+     * Renders the rollcall lines for the supplied snapshot.
+     *
+     * @param snapshot metadata snapshot to read from
+     * @param registry modules to list
+     * @return header line followed by one line per known Hellas module
      */
-    private static final class ModMetadata {
-        private final String version;
-        private final List<String> dependencies;
-        private final List<String> features;
-
-        private ModMetadata(final String version, final List<String> dependencies, final List<String> features) {
-            this.version = version;
-            this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
-            this.features = Collections.unmodifiableList(new ArrayList<>(features));
-        }
-
-        /**
-         * @return string version resolved from metadata or Forge
-         */
-        public String getVersion() {
-            return version;
-        }
-
-        /**
-         * @return list of textual dependency entries defined in the metadata file
-         */
-        public List<String> getDependencies() {
-            return dependencies;
-        }
+    private static List<String> renderRollcall(final MetadataSnapshot snapshot, final ModuleRegistry registry) {
+        final List<String> lines = new ArrayList<>(registry.modIds().size() + 1);
+        lines.add("Hellas suite rollcall:");
+        for (HellasModule mod : registry.modules()) {
+            final ModMetadata metadata = snapshot.get(mod.getModId());
+            if (!metadata.isInstalled()) {
+                lines.add("- " + mod.getDisplayName() + ": missing");
+                continue;
+            }
 
-        /**
-         * @return list of human-friendly feature blurbs sourced from metadata
-         */
-        public List<String> getFeatures() {
-            return features;
+            final JarFingerprints hashes = SuiteFingerprints.get();
+            final String hash = hashes != null ? hashes.getShort(mod.getModId()).orElse(null) : null;
+            lines.add("- " + mod.getDisplayName() + ": " + metadata.getVersion() + (hash != null ? " [" + hash + "]" : ""));
         }
+        return lines;
     }
 }
@@ -0,0 +1,87 @@
+package com.xsasakihaise.hellashelper.command;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.sync.SyncManifest;
+import net.minecraft.util.text.ITextComponent;
+
+import java.util.function.Function;
+
+/**
+ * Answers {@code /hellas <mod> version}, {@code dependencies} and
+ * {@code features [page]} on the client from synced metadata, rendering the
+ * same replies the server would send.
+ * <p>
+ * Anything this class cannot answer exactly as the server would, such as an
+ * unknown module or a feature page past the end, returns {@code null} so the
+ * command is sent to the server as usual.
+ * </p>
+ */
+public final class LocalMetadataCommands {
+    private static final String PREFIX = "/hellas ";
+    private static final ResponseRenderer RESPONSES = new ResponseRenderer();
+
+    private LocalMetadataCommands() {
+    }
+
+    /**
+     * @param message  chat line typed by the player
+     * @param manifest manifest of the current server
+     * @param entries  resolves a checksum to the cached metadata entry
+     * @return the reply, or {@code null} if the line must be sent to the server
+     */
+    public static ITextComponent answer(final String message, final SyncManifest manifest,
+                                        final Function<String, ModMetadata> entries) {
+        if (!message.startsWith(PREFIX)) {
+            return null;
+        }
+
+        final String[] tokens = message.substring(PREFIX.length()).trim().split("\\s+");
+        if (tokens.length < 2 || tokens.length > 3) {
+            return null;
+        }
+
+        final SyncManifest.Module module = manifest.find(tokens[0]);
+        if (module == null) {
+            return null;
+        }
+        final ModMetadata metadata = entries.apply(module.getChecksum());
+        if (metadata == null) {
+            return null;
+        }
+
+        switch (tokens[1]) {
+            case "version":
+                return tokens.length == 2 ? RESPONSES.version(module.getModId(), module.getDisplayName(), metadata) : null;
+            case "dependencies":
+                return tokens.length == 2
+                        ? RESPONSES.dependencies(module.getModId(), module.getDisplayName(), metadata)
+                        : null;
+            case "features":
+                final int page = tokens.length == 2 ? 1 : parsePage(tokens[2]);
+                final int pageSize = manifest.getPageSize();
+                if (page < 1 || page > ResponseRenderer.pageCount(metadata.getFeatures().size(), pageSize)) {
+                    return null;
+                }
+                return RESPONSES.features(module.getModId(), module.getDisplayName(), module.getLiteral(), metadata,
+                        page, pageSize);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param token page argument typed by the player
+     * @return the page number, or {@code 0} if the token is not a plain number
+     */
+    private static int parsePage(final String token) {
+        if (token.isEmpty() || token.length() > 9) {
+            return 0;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                return 0;
+            }
+        }
+        return Integer.parseInt(token);
+    }
+}
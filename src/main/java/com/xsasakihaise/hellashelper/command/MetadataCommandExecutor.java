@@ -0,0 +1,253 @@
+package com.xsasakihaise.hellashelper.command;
+
+import com.mojang.brigadier.Command;
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.metadata.MetadataRepository;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.stats.HelperMetrics;
+import net.minecraft.command.CommandSource;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs metadata-backed command handlers without blocking the server thread.
+ * <p>
+ * When a metadata snapshot is already published the handler runs inline, as
+ * that is a plain map lookup. Otherwise, and if asynchronous execution is
+ * enabled, the snapshot is resolved on a small bounded worker pool and the
+ * handler is scheduled back onto the server thread once it is available. A
+ * lookup that exceeds the configured timeout is reported as a failure to the
+ * command source instead of stalling the tick.
+ * </p>
+ * <p>
+ * Handlers render a {@link Reply} instead of sending it, so that when several
+ * players run the same query within one tick the reply is computed once and
+ * sent to each of them.
+ * </p>
+ */
+final class MetadataCommandExecutor {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int QUEUE_CAPACITY = 64;
+    private static final Map<String, Coalesced> COALESCED = new HashMap<>();
+
+    private static ThreadPoolExecutor workers;
+    private static ScheduledThreadPoolExecutor timeouts;
+    private static int coalescedTick = -1;
+
+    private MetadataCommandExecutor() {
+    }
+
+    /**
+     * Executes the supplied handler against the current metadata snapshot.
+     *
+     * @param source     command source that receives the reply
+     * @param repository repository providing the metadata snapshot
+     * @param modId      id of the queried mod, used for metrics
+     * @param subcommand executed subcommand, used for metrics
+     * @param argument   argument of the subcommand, empty if it takes none; replies are coalesced per
+     *                   mod, subcommand and argument
+     * @param action     handler that renders the reply from the snapshot
+     * @return brigadier command result; asynchronous executions report success immediately
+     */
+    static int execute(final CommandSource source, final MetadataRepository repository, final String modId,
+                       final String subcommand, final String argument, final MetadataAction action) {
+        final String key = modId + ' ' + subcommand + ' ' + argument;
+        final MetadataSnapshot cached = repository.peek();
+        HelperMetrics.recordSnapshotLookup(cached != null);
+
+        final MinecraftServer server = source.getServer();
+        if (cached != null || server == null || !HellasHelperConfig.ASYNC_COMMANDS.get()) {
+            final MetadataSnapshot snapshot = cached != null ? cached : repository.snapshot();
+            return HelperMetrics.timeCommand(modId, subcommand, () -> render(server, key, snapshot, action).send(source));
+        }
+
+        final CompletableFuture<MetadataSnapshot> lookup;
+        try {
+            lookup = CompletableFuture.supplyAsync(repository::snapshot, workers());
+        } catch (RejectedExecutionException ex) {
+            source.sendFailure(new StringTextComponent("Hellas metadata is still loading, please try again shortly."));
+            return 0;
+        }
+
+        final long timeoutMs = HellasHelperConfig.ASYNC_TIMEOUT_MS.get();
+        final ScheduledFuture<?> timeout = timeouts().schedule(
+                () -> lookup.completeExceptionally(new TimeoutException()), timeoutMs, TimeUnit.MILLISECONDS);
+
+        lookup.whenComplete((snapshot, error) -> {
+            timeout.cancel(false);
+            server.execute(() -> {
+                if (error == null) {
+                    HelperMetrics.timeCommand(modId, subcommand, () -> render(server, key, snapshot, action).send(source));
+                    return;
+                }
+
+                if (error instanceof TimeoutException) {
+                    LOGGER.warn("Hellas metadata lookup timed out after {} ms.", timeoutMs);
+                    source.sendFailure(new StringTextComponent("Hellas metadata lookup timed out, please try again later."));
+                } else {
+                    LOGGER.warn("Hellas metadata lookup failed.", error);
+                    source.sendFailure(new StringTextComponent("Hellas metadata could not be loaded."));
+                }
+            });
+        });
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Renders a reply, reusing the reply of an identical query made earlier in
+     * the same tick against the same snapshot. Coalescing only happens on the
+     * server thread, which is the only thread that touches the reply table.
+     *
+     * @param server   server running the command, or {@code null}
+     * @param key      mod, subcommand and argument of the query
+     * @param snapshot metadata snapshot to read from
+     * @param action   handler that renders the reply
+     * @return the reply
+     */
+    private static Reply render(final MinecraftServer server, final String key, final MetadataSnapshot snapshot,
+                                final MetadataAction action) {
+        if (server == null || !server.isSameThread()) {
+            return action.render(snapshot);
+        }
+
+        final int tick = server.getTickCount();
+        if (tick != coalescedTick) {
+            COALESCED.clear();
+            coalescedTick = tick;
+        }
+        final Coalesced previous = COALESCED.get(key);
+        if (previous != null && previous.snapshot == snapshot) {
+            HelperMetrics.recordCoalesced();
+            return previous.reply;
+        }
+
+        final Reply reply = action.render(snapshot);
+        COALESCED.put(key, new Coalesced(snapshot, reply));
+        return reply;
+    }
+
+    /**
+     * @return the bounded worker pool used for metadata lookups
+     */
+    private static synchronized ThreadPoolExecutor workers() {
+        if (workers == null) {
+            final int size = HellasHelperConfig.ASYNC_WORKERS.get();
+            workers = new ThreadPoolExecutor(size, size, 30L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY), daemonFactory("HellasHelper-Command"));
+            workers.allowCoreThreadTimeOut(true);
+        }
+        return workers;
+    }
+
+    /**
+     * @return the scheduler that enforces lookup timeouts
+     */
+    private static synchronized ScheduledThreadPoolExecutor timeouts() {
+        if (timeouts == null) {
+            timeouts = new ScheduledThreadPoolExecutor(1, daemonFactory("HellasHelper-Timeout"));
+            timeouts.setRemoveOnCancelPolicy(true);
+            timeouts.setKeepAliveTime(30L, TimeUnit.SECONDS);
+            timeouts.allowCoreThreadTimeOut(true);
+        }
+        return timeouts;
+    }
+
+    /**
+     * Creates a thread factory for named daemon threads.
+     *
+     * @param prefix thread name prefix
+     * @return the thread factory
+     */
+    private static ThreadFactory daemonFactory(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + '-' + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(MetadataCommandExecutor.class.getClassLoader());
+            return thread;
+        };
+    }
+
+    /**
+     * Command handler that renders its reply from a metadata snapshot.
+     */
+    @FunctionalInterface
+    interface MetadataAction {
+        /**
+         * @param snapshot metadata snapshot to read from
+         * @return the reply to send
+         */
+        Reply render(MetadataSnapshot snapshot);
+    }
+
+    /**
+     * A rendered reply, sent as a success or failure message.
+     */
+    static final class Reply {
+        private final ITextComponent message;
+        private final boolean success;
+
+        private Reply(final ITextComponent message, final boolean success) {
+            this.message = message;
+            this.success = success;
+        }
+
+        /**
+         * @param message reply text
+         * @return a successful reply
+         */
+        static Reply success(final ITextComponent message) {
+            return new Reply(message, true);
+        }
+
+        /**
+         * @param message failure text
+         * @return a failed reply
+         */
+        static Reply failure(final String message) {
+            return new Reply(new StringTextComponent(message), false);
+        }
+
+        /**
+         * @param source command source that receives the reply
+         * @return brigadier command result
+         */
+        int send(final CommandSource source) {
+            if (success) {
+                source.sendSuccess(message, false);
+                return Command.SINGLE_SUCCESS;
+            }
+            source.sendFailure(message);
+            return 0;
+        }
+    }
+
+    /**
+     * A reply together with the snapshot it was rendered from.
+     */
+    private static final class Coalesced {
+        private final MetadataSnapshot snapshot;
+        private final Reply reply;
+
+        private Coalesced(final MetadataSnapshot snapshot, final Reply reply) {
+            this.snapshot = snapshot;
+            this.reply = reply;
+        }
+    }
+}
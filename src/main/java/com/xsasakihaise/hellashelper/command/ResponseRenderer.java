@@ -0,0 +1,159 @@
+package com.xsasakihaise.hellashelper.command;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.stats.HelperMetrics;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Renders {@code /hellas} replies as a single multi-line text component.
+ * <p>
+ * Each reply is sent as one chat message instead of one message per line, and
+ * the rendered component is cached per mod and subcommand. A cached component
+ * is reused for as long as the metadata it was rendered from is unchanged,
+ * which is detected by identity since snapshot entries are immutable.
+ * </p>
+ */
+final class ResponseRenderer {
+    private final Map<String, Rendered> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param modId       id of the queried mod
+     * @param displayName friendly name of the queried mod
+     * @param metadata    snapshot entry of the queried mod
+     * @return the rendered version reply
+     */
+    ITextComponent version(final String modId, final String displayName, final ModMetadata metadata) {
+        return cached(modId + ":version", metadata,
+                () -> new StringTextComponent(displayName + " version: " + metadata.getVersion()));
+    }
+
+    /**
+     * @param modId       id of the queried mod
+     * @param displayName friendly name of the queried mod
+     * @param metadata    snapshot entry of the queried mod
+     * @return the rendered dependency listing
+     */
+    ITextComponent dependencies(final String modId, final String displayName, final ModMetadata metadata) {
+        return cached(modId + ":dependencies", metadata, () -> {
+            if (metadata.getDependencies().isEmpty()) {
+                return new StringTextComponent("No dependency information available for " + displayName + '.');
+            }
+            return lines(displayName + " dependencies:", metadata.getDependencies());
+        });
+    }
+
+    /**
+     * Renders one page of the feature listing. Only the entries on the
+     * requested page are read from the metadata, so large feature lists are
+     * never decoded in full.
+     *
+     * @param modId       id of the queried mod
+     * @param displayName friendly name of the queried mod
+     * @param literal     command literal of the queried mod, used in the paging hint
+     * @param metadata    snapshot entry of the queried mod
+     * @param page        one-based page number, must not exceed {@link #pageCount(int, int)}
+     * @param pageSize    number of entries per page
+     * @return the rendered feature listing
+     */
+    ITextComponent features(final String modId, final String displayName, final String literal,
+                            final ModMetadata metadata, final int page, final int pageSize) {
+        return cached(modId + ":features:" + page + '/' + pageSize, metadata, () -> {
+            final List<String> features = metadata.getFeatures();
+            if (features.isEmpty()) {
+                return new StringTextComponent("No feature information available for " + displayName + '.');
+            }
+
+            final int pages = pageCount(features.size(), pageSize);
+            if (pages == 1) {
+                return lines(displayName + " features:", features);
+            }
+
+            final int from = (page - 1) * pageSize;
+            final List<String> lines = new ArrayList<>(features.subList(from, Math.min(from + pageSize, features.size())));
+            if (page < pages) {
+                lines.add("Use /hellas " + literal + " features " + (page + 1) + " for more.");
+            }
+            return lines(displayName + " features (page " + page + '/' + pages + "):", lines);
+        });
+    }
+
+    /**
+     * @param entries  number of entries in a listing
+     * @param pageSize number of entries per page
+     * @return number of pages needed for the listing, at least one
+     */
+    static int pageCount(final int entries, final int pageSize) {
+        return Math.max(1, (entries + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Renders a reply that depends on more than one mod, such as the rollcall.
+     *
+     * @param key      cache key of the reply
+     * @param source   immutable object the reply is derived from
+     * @param renderer renders the reply when the cached copy is stale
+     * @return the rendered reply
+     */
+    ITextComponent composite(final String key, final Object source, final Supplier<List<String>> renderer) {
+        return cached(key, source, () -> {
+            final List<String> lines = renderer.get();
+            return lines(lines.get(0), lines.subList(1, lines.size()));
+        });
+    }
+
+    /**
+     * Returns the cached component for the key, rendering it again if the
+     * source object changed since it was cached.
+     *
+     * @param key      cache key of the reply
+     * @param source   immutable object the reply is derived from
+     * @param renderer renders the reply
+     * @return the rendered reply
+     */
+    private ITextComponent cached(final String key, final Object source, final Supplier<ITextComponent> renderer) {
+        final Rendered existing = cache.get(key);
+        if (existing != null && existing.source == source) {
+            HelperMetrics.recordResponseCache(true);
+            return existing.component;
+        }
+
+        HelperMetrics.recordResponseCache(false);
+        final ITextComponent component = renderer.get();
+        cache.put(key, new Rendered(source, component));
+        return component;
+    }
+
+    /**
+     * Joins a header and its entries into a single multi-line component.
+     *
+     * @param header  first line of the reply
+     * @param entries remaining lines of the reply
+     * @return the composite component
+     */
+    static ITextComponent lines(final String header, final List<String> entries) {
+        final List<String> lines = new ArrayList<>(entries.size() + 1);
+        lines.add(header);
+        lines.addAll(entries);
+        return new StringTextComponent(String.join("\n", lines));
+    }
+
+    /**
+     * Cached component together with the object it was rendered from.
+     */
+    private static final class Rendered {
+        private final Object source;
+        private final ITextComponent component;
+
+        private Rendered(final Object source, final ITextComponent component) {
+            this.source = source;
+            this.component = component;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.xsasakihaise.hellashelper.config;
+
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Common configuration for the Helper mod, stored in {@code config/hellashelper-common.toml}.
+ * <p>
+ * All values are read lazily through their {@link ForgeConfigSpec.ConfigValue}
+ * handles, so edits made by Forge's config watcher apply without a restart
+ * wherever the consuming code re-reads them.
+ * </p>
+ */
+public final class HellasHelperConfig {
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.BooleanValue ASYNC_COMMANDS;
+    public static final ForgeConfigSpec.IntValue ASYNC_WORKERS;
+    public static final ForgeConfigSpec.IntValue ASYNC_TIMEOUT_MS;
+    public static final ForgeConfigSpec.IntValue FEATURES_PAGE_SIZE;
+    public static final ForgeConfigSpec.IntValue SEARCH_RESULTS;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> THROTTLE_LIMITS;
+
+    public static final ForgeConfigSpec.IntValue MAX_DOCUMENT_BYTES;
+    public static final ForgeConfigSpec.IntValue MAX_ENTRIES;
+    public static final ForgeConfigSpec.BooleanValue WATCH_OVERRIDES;
+
+    public static final ForgeConfigSpec.BooleanValue HTTP_ENABLED;
+    public static final ForgeConfigSpec.ConfigValue<String> HTTP_ADDRESS;
+    public static final ForgeConfigSpec.IntValue HTTP_PORT;
+
+    public static final ForgeConfigSpec.ConfigValue<String> CLUSTER_DIRECTORY;
+    public static final ForgeConfigSpec.ConfigValue<String> CLUSTER_NODE;
+    public static final ForgeConfigSpec.IntValue CLUSTER_REFRESH_SECONDS;
+
+    public static final ForgeConfigSpec.BooleanValue SYNC_ENABLED;
+
+    public static final ForgeConfigSpec.BooleanValue PROFILER_ENABLED;
+    public static final ForgeConfigSpec.IntValue PROFILER_INTERVAL_MS;
+
+    public static final ForgeConfigSpec.ConfigValue<String> MODULE_ID_PREFIX;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> EXPECTED_MODULES;
+
+    static {
+        final ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+
+        builder.comment("Settings for the /hellas command handlers.").push("commands");
+        ASYNC_COMMANDS = builder
+                .comment("Resolve metadata on a worker pool when it is not cached yet, replying on the server thread.")
+                .define("asyncMetadata", true);
+        ASYNC_WORKERS = builder
+                .comment("Number of worker threads used for asynchronous metadata lookups.")
+                .defineInRange("asyncWorkers", 2, 1, 8);
+        ASYNC_TIMEOUT_MS = builder
+                .comment("Milliseconds to wait for an asynchronous metadata lookup before reporting a failure.")
+                .defineInRange("asyncTimeoutMs", 5000, 100, 60000);
+        FEATURES_PAGE_SIZE = builder
+                .comment("Number of feature entries shown per page of /hellas <mod> features [page].")
+                .defineInRange("featuresPageSize", 10, 1, 100);
+        SEARCH_RESULTS = builder
+                .comment("Maximum number of hits shown by /hellas search <terms>.")
+                .defineInRange("searchResults", 10, 1, 50);
+        THROTTLE_LIMITS = builder
+                .comment("Per-player rate limits as subcommand=burst/seconds: up to burst uses, refilled evenly over",
+                        "the given seconds. The * entry applies to subcommands without an entry of their own.")
+                .defineList("rateLimits", Arrays.asList("*=10/10", "features=20/10", "search=5/10", "rollcall=3/10",
+                        "rollcall network=2/30", "depcheck=3/10", "stats=3/10", "startup=3/10", "perf=5/10"),
+                        value -> value instanceof String);
+        builder.pop();
+
+        builder.comment("Limits applied while reading metadata files.").push("metadata");
+        MAX_DOCUMENT_BYTES = builder
+                .comment("Maximum size in bytes of a single metadata file; larger files are ignored.")
+                .defineInRange("maxDocumentBytes", 256 * 1024, 1024, 16 * 1024 * 1024);
+        MAX_ENTRIES = builder
+                .comment("Maximum number of dependency or feature entries kept per metadata file.")
+                .defineInRange("maxEntries", 1024, 1, 65536);
+        WATCH_OVERRIDES = builder
+                .comment("Reload metadata as soon as a file in config/hellashelper/ changes, instead of on the next start.")
+                .define("watchOverrides", true);
+        builder.pop();
+
+        builder.comment("Read-only HTTP endpoint serving the suite status as JSON at /hellas/status.").push("http");
+        HTTP_ENABLED = builder
+                .comment("Start the status endpoint when the server starts.")
+                .define("enabled", false);
+        HTTP_ADDRESS = builder
+                .comment("Address the endpoint binds to; keep the loopback address unless monitoring runs elsewhere.")
+                .define("bindAddress", "127.0.0.1");
+        HTTP_PORT = builder
+                .comment("Port the endpoint listens on.")
+                .defineInRange("port", 8765, 1024, 65535);
+        builder.pop();
+
+        builder.comment("Exchange of suite snapshots between the servers of a network for /hellas helper rollcall network.")
+                .push("cluster");
+        CLUSTER_DIRECTORY = builder
+                .comment("Directory shared by every server of the network; leave empty to disable the exchange.")
+                .define("sharedDirectory", "");
+        CLUSTER_NODE = builder
+                .comment("Name this server publishes its snapshot under; defaults to the host name when empty.")
+                .define("nodeName", "");
+        CLUSTER_REFRESH_SECONDS = builder
+                .comment("Seconds between two background scans of the other servers' snapshots; the network rollcall",
+                        "shows the result of the last scan.")
+                .defineInRange("refreshSeconds", 30, 5, 3600);
+        builder.pop();
+
+        builder.comment("Mirroring of the suite metadata to clients that run the helper.").push("sync");
+        SYNC_ENABLED = builder
+                .comment("Send the metadata to clients on login so they answer version, dependencies and features locally.")
+                .define("enabled", true);
+        builder.pop();
+
+        builder.comment("Sampling profiler behind /hellas <mod> perf.").push("profiler");
+        PROFILER_ENABLED = builder
+                .comment("Sample the server thread while the server runs and attribute its time to the Hellas modules.")
+                .define("enabled", false);
+        PROFILER_INTERVAL_MS = builder
+                .comment("Milliseconds between two samples; lower values are more precise but cost more.",
+                        "Every sample captures the server thread's stack, which pauses all JVM threads at a",
+                        "safepoint, so values far below 100 add noticeable pauses to every tick.")
+                .defineInRange("sampleIntervalMs", 100, 10, 1000);
+        builder.pop();
+
+        builder.comment("Discovery of the Hellas modules exposed under /hellas.").push("modules");
+        MODULE_ID_PREFIX = builder
+                .comment("Installed mods whose id starts with this prefix are always exposed; leave empty to only",
+                        "expose mods that bundle a config/<modid>.json metadata file.")
+                .define("idPrefix", "hellas");
+        EXPECTED_MODULES = builder
+                .comment("Mod ids that the rollcall reports as missing when they are not installed.")
+                .defineList("expected", ModuleRegistry.SUITE_MODULE_IDS, value -> value instanceof String);
+        builder.pop();
+
+        SPEC = builder.build();
+    }
+
+    private HellasHelperConfig() {
+    }
+}
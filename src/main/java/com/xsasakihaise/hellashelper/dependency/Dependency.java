@@ -0,0 +1,106 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * One parsed entry of a module's {@code dependencies} metadata list.
+ * <p>
+ * Entries have the form {@code <modid> [version]}, where the id is matched
+ * case-insensitively and the optional version is either a Maven range such as
+ * {@code [2.0,3.0)}, a minimum such as {@code 2.0.0+}, or a bare version,
+ * which is also treated as a minimum. Entries without a version only require
+ * the target to be installed.
+ * </p>
+ */
+public final class Dependency {
+    private final String raw;
+    private final String targetId;
+    private final String versionSpec;
+    private final VersionRange range;
+
+    private Dependency(final String raw, final String targetId, final String versionSpec, final VersionRange range) {
+        this.raw = raw;
+        this.targetId = Objects.requireNonNull(targetId);
+        this.versionSpec = versionSpec;
+        this.range = range;
+    }
+
+    /**
+     * Parses a dependency entry.
+     *
+     * @param raw entry as declared in the metadata
+     * @return the parsed dependency
+     * @throws InvalidVersionSpecificationException when the version part is not a valid range
+     */
+    public static Dependency parse(final String raw) throws InvalidVersionSpecificationException {
+        final String trimmed = raw.trim();
+        final int space = indexOfWhitespace(trimmed);
+        final String targetId = (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase(Locale.ROOT);
+        if (space < 0) {
+            return new Dependency(raw, targetId, null, null);
+        }
+
+        final String spec = trimmed.substring(space).trim();
+        return new Dependency(raw, targetId, spec, VersionRange.createFromVersionSpec(toRangeSpec(spec)));
+    }
+
+    /**
+     * @param text text to search
+     * @return index of the first whitespace character, or {@code -1}
+     */
+    private static int indexOfWhitespace(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Normalizes the accepted version notations to a Maven range.
+     *
+     * @param spec declared version
+     * @return Maven version range specification
+     */
+    private static String toRangeSpec(final String spec) {
+        if (spec.startsWith("[") || spec.startsWith("(")) {
+            return spec;
+        }
+
+        final String minimum = spec.endsWith("+") ? spec.substring(0, spec.length() - 1) : spec;
+        return "[" + minimum + ",)";
+    }
+
+    /**
+     * @return the entry as declared in the metadata
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    /**
+     * @return lower-case id of the required mod
+     */
+    public String getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * @return the declared version, or {@code null} if any version is accepted
+     */
+    public String getVersionSpec() {
+        return versionSpec;
+    }
+
+    /**
+     * @return the accepted versions, or {@code null} if any version is accepted
+     */
+    public VersionRange getRange() {
+        return range;
+    }
+}
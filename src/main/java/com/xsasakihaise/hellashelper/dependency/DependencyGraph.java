@@ -0,0 +1,235 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.ModLookup;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency graph over the installed Hellas modules of one metadata snapshot.
+ * <p>
+ * Graphs are immutable and built incrementally with
+ * {@link #update(DependencyGraph, MetadataSnapshot, Collection, ModLookup)}:
+ * only modules whose snapshot entry changed since the previous graph are
+ * re-checked, on the calling thread, and the topological order and cycle
+ * detection are only recomputed when an edge actually changed. Checks stay
+ * sequential because they are cheap and would otherwise run on the common
+ * fork-join pool, whose threads lack the mod class loader.
+ * </p>
+ */
+public final class DependencyGraph {
+    private final MetadataSnapshot source;
+    private final Map<String, ModuleCheck> checks;
+    private final List<String> order;
+    private final List<List<String>> cycles;
+
+    private DependencyGraph(final MetadataSnapshot source, final Map<String, ModuleCheck> checks,
+                            final List<String> order, final List<List<String>> cycles) {
+        this.source = source;
+        this.checks = Collections.unmodifiableMap(checks);
+        this.order = Collections.unmodifiableList(order);
+        this.cycles = Collections.unmodifiableList(cycles);
+    }
+
+    /**
+     * Builds the graph for a snapshot, reusing everything that did not change
+     * since {@code previous}.
+     *
+     * @param previous graph of an earlier snapshot, or {@code null}
+     * @param snapshot snapshot to check
+     * @param known    ids of every module the helper knows about
+     * @param mods     lookup providing the installed versions
+     * @return the graph for the snapshot
+     */
+    public static DependencyGraph update(final DependencyGraph previous, final MetadataSnapshot snapshot,
+                                         final Collection<String> known, final ModLookup mods) {
+        final List<String> stale = new ArrayList<>();
+        for (Map.Entry<String, ModMetadata> entry : snapshot.getEntries().entrySet()) {
+            final ModuleCheck existing = previous != null ? previous.checks.get(entry.getKey()) : null;
+            if (entry.getValue().isInstalled() && (existing == null || existing.getMetadata() != entry.getValue())) {
+                stale.add(entry.getKey());
+            }
+        }
+
+        final Map<String, ModuleCheck> rechecked = new HashMap<>();
+        for (String modId : stale) {
+            rechecked.put(modId, ModuleCheck.check(modId, snapshot.get(modId), known, mods));
+        }
+
+        boolean edgesChanged = previous == null;
+        final Map<String, ModuleCheck> checks = new LinkedHashMap<>();
+        for (Map.Entry<String, ModMetadata> entry : snapshot.getEntries().entrySet()) {
+            if (!entry.getValue().isInstalled()) {
+                edgesChanged |= previous != null && previous.checks.containsKey(entry.getKey());
+                continue;
+            }
+
+            final ModuleCheck fresh = rechecked.get(entry.getKey());
+            if (fresh == null) {
+                checks.put(entry.getKey(), previous.checks.get(entry.getKey()));
+                continue;
+            }
+
+            final ModuleCheck old = previous != null ? previous.checks.get(entry.getKey()) : null;
+            edgesChanged |= old == null || !old.getEdges().equals(fresh.getEdges());
+            checks.put(entry.getKey(), fresh);
+        }
+
+        if (!edgesChanged) {
+            return new DependencyGraph(snapshot, checks, previous.order, previous.cycles);
+        }
+
+        final List<String> order = new ArrayList<>(checks.size());
+        final List<List<String>> cycles = new ArrayList<>();
+        sort(checks, order, cycles);
+        return new DependencyGraph(snapshot, checks, order, cycles);
+    }
+
+    /**
+     * Orders the modules so that every module comes after the modules it
+     * depends on (Kahn's algorithm), and groups the modules that cannot be
+     * ordered into their dependency cycles.
+     *
+     * @param checks per-module checks holding the edges
+     * @param order  receives the load order
+     * @param cycles receives the modules of each cycle
+     */
+    private static void sort(final Map<String, ModuleCheck> checks, final List<String> order,
+                             final List<List<String>> cycles) {
+        final Map<String, Integer> pending = new HashMap<>();
+        final Map<String, List<String>> dependents = new HashMap<>();
+        for (ModuleCheck check : checks.values()) {
+            int count = 0;
+            for (String target : check.getEdges()) {
+                if (checks.containsKey(target)) {
+                    dependents.computeIfAbsent(target, key -> new ArrayList<>()).add(check.getModId());
+                    count++;
+                }
+            }
+            pending.put(check.getModId(), count);
+        }
+
+        final Deque<String> ready = new ArrayDeque<>();
+        for (String modId : checks.keySet()) {
+            if (pending.get(modId) == 0) {
+                ready.add(modId);
+            }
+        }
+        while (!ready.isEmpty()) {
+            final String modId = ready.poll();
+            order.add(modId);
+            for (String dependent : dependents.getOrDefault(modId, Collections.<String>emptyList())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (order.size() < checks.size()) {
+            findCycles(checks, pending, cycles);
+        }
+    }
+
+    /**
+     * Splits the modules left over by the topological sort into strongly
+     * connected components and keeps the ones that form a cycle.
+     *
+     * @param checks  per-module checks holding the edges
+     * @param pending remaining in-degree per module; modules with a positive count were not ordered
+     * @param cycles  receives the modules of each cycle
+     */
+    private static void findCycles(final Map<String, ModuleCheck> checks, final Map<String, Integer> pending,
+                                   final List<List<String>> cycles) {
+        final Map<String, Integer> index = new HashMap<>();
+        final Map<String, Integer> low = new HashMap<>();
+        final Deque<String> stack = new ArrayDeque<>();
+        for (String modId : checks.keySet()) {
+            if (pending.get(modId) > 0 && !index.containsKey(modId)) {
+                strongConnect(modId, checks, index, low, stack, cycles);
+            }
+        }
+    }
+
+    /**
+     * One step of Tarjan's strongly connected components algorithm.
+     *
+     * @param modId  module to visit
+     * @param checks per-module checks holding the edges
+     * @param index  visit order per module
+     * @param low    lowest reachable visit order per module
+     * @param stack  modules of the components under construction
+     * @param cycles receives the modules of each cycle
+     */
+    private static void strongConnect(final String modId, final Map<String, ModuleCheck> checks,
+                                      final Map<String, Integer> index, final Map<String, Integer> low,
+                                      final Deque<String> stack, final List<List<String>> cycles) {
+        index.put(modId, index.size());
+        low.put(modId, index.get(modId));
+        stack.push(modId);
+
+        final ModuleCheck check = checks.get(modId);
+        for (String target : check.getEdges()) {
+            if (!checks.containsKey(target)) {
+                continue;
+            }
+            if (!index.containsKey(target)) {
+                strongConnect(target, checks, index, low, stack, cycles);
+                low.put(modId, Math.min(low.get(modId), low.get(target)));
+            } else if (stack.contains(target)) {
+                low.put(modId, Math.min(low.get(modId), index.get(target)));
+            }
+        }
+
+        if (!low.get(modId).equals(index.get(modId))) {
+            return;
+        }
+
+        final List<String> component = new ArrayList<>();
+        String member;
+        do {
+            member = stack.pop();
+            component.add(0, member);
+        } while (!member.equals(modId));
+
+        if (component.size() > 1 || check.getEdges().contains(modId)) {
+            cycles.add(Collections.unmodifiableList(component));
+        }
+    }
+
+    /**
+     * @return the snapshot the graph was built from
+     */
+    public MetadataSnapshot getSource() {
+        return source;
+    }
+
+    /**
+     * @return the check of every installed module, in snapshot order
+     */
+    public Collection<ModuleCheck> getChecks() {
+        return checks.values();
+    }
+
+    /**
+     * @return installed modules ordered so that dependencies come first; modules in or behind a cycle are left out
+     */
+    public List<String> getOrder() {
+        return order;
+    }
+
+    /**
+     * @return the modules of each dependency cycle
+     */
+    public List<List<String>> getCycles() {
+        return cycles;
+    }
+}
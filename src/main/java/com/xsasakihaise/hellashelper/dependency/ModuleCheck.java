@@ -0,0 +1,176 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import com.xsasakihaise.hellashelper.metadata.ModLookup;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Result of checking the declared dependencies of one installed module.
+ * <p>
+ * A check only depends on the module's own metadata entry and on the
+ * installed versions, which do not change at runtime, so it stays valid for
+ * as long as the module's snapshot entry is the same object.
+ * </p>
+ */
+public final class ModuleCheck {
+    private final String modId;
+    private final ModMetadata metadata;
+    private final Set<String> edges;
+    private final List<Problem> problems;
+    private final int unchecked;
+
+    private ModuleCheck(final String modId, final ModMetadata metadata, final Set<String> edges,
+                        final List<Problem> problems, final int unchecked) {
+        this.modId = modId;
+        this.metadata = metadata;
+        this.edges = Collections.unmodifiableSet(edges);
+        this.problems = Collections.unmodifiableList(problems);
+        this.unchecked = unchecked;
+    }
+
+    /**
+     * Checks every dependency a module declares against the installed modules.
+     *
+     * @param modId    id of the module
+     * @param metadata snapshot entry of the module
+     * @param known    ids of every module the helper knows about
+     * @param mods     lookup providing the installed versions
+     * @return the check result
+     */
+    static ModuleCheck check(final String modId, final ModMetadata metadata, final Collection<String> known,
+                             final ModLookup mods) {
+        final Set<String> edges = new LinkedHashSet<>();
+        final List<Problem> problems = new ArrayList<>();
+        int unchecked = 0;
+
+        for (String entry : metadata.getDependencies()) {
+            final Dependency dependency;
+            try {
+                dependency = Dependency.parse(entry);
+            } catch (InvalidVersionSpecificationException | RuntimeException ex) {
+                problems.add(new Problem(Problem.Kind.INVALID, modId, entry, null));
+                continue;
+            }
+
+            final String target = dependency.getTargetId();
+            if (!known.contains(target)) {
+                unchecked++;
+                continue;
+            }
+
+            edges.add(target);
+            if (!mods.isLoaded(target)) {
+                problems.add(new Problem(Problem.Kind.MISSING, modId, entry, null));
+                continue;
+            }
+
+            final Optional<String> installed = mods.installedVersion(target);
+            if (dependency.getRange() != null && installed.isPresent()
+                    && !dependency.getRange().containsVersion(new DefaultArtifactVersion(installed.get()))) {
+                problems.add(new Problem(Problem.Kind.MISMATCH, modId, entry, installed.get()));
+            }
+        }
+        return new ModuleCheck(modId, metadata, edges, problems, unchecked);
+    }
+
+    /**
+     * @return id of the checked module
+     */
+    public String getModId() {
+        return modId;
+    }
+
+    /**
+     * @return the snapshot entry the check was computed from
+     */
+    ModMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * @return ids of the known modules this module depends on
+     */
+    public Set<String> getEdges() {
+        return edges;
+    }
+
+    /**
+     * @return problems found in the module's dependencies
+     */
+    public List<Problem> getProblems() {
+        return problems;
+    }
+
+    /**
+     * @return number of dependencies on mods outside the Hellas suite, which are not checked
+     */
+    public int getUnchecked() {
+        return unchecked;
+    }
+
+    /**
+     * A dependency that is not satisfied.
+     */
+    public static final class Problem {
+        /**
+         * Why a dependency is not satisfied.
+         */
+        public enum Kind {
+            /** The required module is not installed. */
+            MISSING,
+            /** The installed version is outside the declared range. */
+            MISMATCH,
+            /** The entry could not be parsed. */
+            INVALID
+        }
+
+        private final Kind kind;
+        private final String modId;
+        private final String dependency;
+        private final String installedVersion;
+
+        private Problem(final Kind kind, final String modId, final String dependency, final String installedVersion) {
+            this.kind = kind;
+            this.modId = modId;
+            this.dependency = dependency;
+            this.installedVersion = installedVersion;
+        }
+
+        /**
+         * @return why the dependency is not satisfied
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return id of the module declaring the dependency
+         */
+        public String getModId() {
+            return modId;
+        }
+
+        /**
+         * @return the dependency entry as declared
+         */
+        public String getDependency() {
+            return dependency;
+        }
+
+        /**
+         * @return the installed version of the target for {@link Kind#MISMATCH}, otherwise {@code null}
+         */
+        public String getInstalledVersion() {
+            return installedVersion;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the {@link DependencyGraph} of the current metadata snapshot and
+ * renders the {@code /hellas helper depcheck} report from it.
+ * <p>
+ * The graph is updated incrementally in the background whenever a snapshot
+ * is published; a lookup for a snapshot it was not updated for yet updates it
+ * on the calling thread.
+ * </p>
+ */
+public final class SuiteDependencies {
+    private static volatile DependencyGraph graph;
+
+    private SuiteDependencies() {
+    }
+
+    /**
+     * Returns the dependency graph for a snapshot, updating the previous graph
+     * incrementally when the snapshot changed.
+     *
+     * @param snapshot snapshot to check
+     * @param registry modules to check
+     * @return the graph built from that snapshot
+     */
+    public static DependencyGraph graph(final MetadataSnapshot snapshot, final ModuleRegistry registry) {
+        final DependencyGraph current = graph;
+        if (current != null && current.getSource() == snapshot) {
+            return current;
+        }
+
+        final DependencyGraph updated = DependencyGraph.update(current, snapshot, registry.modIds(), registry);
+        graph = updated;
+        return updated;
+    }
+
+    /**
+     * Renders the dependency check report.
+     *
+     * @param graph    dependency graph to report on
+     * @param registry modules used to resolve display names
+     * @return header line followed by one line per finding and a summary
+     */
+    public static List<String> render(final DependencyGraph graph, final ModuleRegistry registry) {
+        final List<String> lines = new ArrayList<>();
+        lines.add("Hellas dependency check:");
+
+        for (List<String> cycle : graph.getCycles()) {
+            final List<String> names = new ArrayList<>(cycle.size());
+            for (String modId : cycle) {
+                names.add(registry.displayName(modId));
+            }
+            lines.add("- Dependency cycle between " + String.join(", ", names));
+        }
+
+        int unchecked = 0;
+        for (ModuleCheck check : graph.getChecks()) {
+            unchecked += check.getUnchecked();
+            for (ModuleCheck.Problem problem : check.getProblems()) {
+                final String name = registry.displayName(problem.getModId());
+                switch (problem.getKind()) {
+                    case MISSING:
+                        lines.add("- " + name + " requires \"" + problem.getDependency() + "\", which is not installed");
+                        break;
+                    case MISMATCH:
+                        lines.add("- " + name + " requires \"" + problem.getDependency() + "\", but "
+                                + problem.getInstalledVersion() + " is installed");
+                        break;
+                    default:
+                        lines.add("- " + name + " declares an unreadable dependency \"" + problem.getDependency() + '"');
+                        break;
+                }
+            }
+        }
+
+        if (lines.size() == 1) {
+            lines.add("No problems found.");
+        }
+        lines.add("Checked " + graph.getChecks().size() + " installed modules"
+                + (unchecked > 0 ? ", skipped " + unchecked + " dependencies outside the suite." : "."));
+
+        final List<String> order = new ArrayList<>(graph.getOrder().size());
+        for (String modId : graph.getOrder()) {
+            order.add(registry.displayName(modId));
+        }
+        lines.add("Load order: " + String.join(", ", order));
+        return lines;
+    }
+}
@@ -0,0 +1,96 @@
+package com.xsasakihaise.hellashelper.http;
+
+import com.google.gson.stream.JsonWriter;
+import com.xsasakihaise.hellashelper.metadata.Hashes;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.module.HellasModule;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The suite status JSON served by {@link StatusServer}, serialized once per
+ * metadata snapshot.
+ * <p>
+ * The document lists every registry module with its installed flag, metadata
+ * status, version and a hash of its metadata entry ({@code null} for modules
+ * that are not installed). The body is kept as UTF-8 bytes together with an
+ * entity tag derived from its content, so unchanged snapshots always produce
+ * the same tag.
+ * </p>
+ */
+final class StatusDocument {
+    private static final int ETAG_HEX_LENGTH = 16;
+
+    private final MetadataSnapshot source;
+    private final byte[] body;
+    private final String etag;
+
+    private StatusDocument(final MetadataSnapshot source, final byte[] body, final String etag) {
+        this.source = source;
+        this.body = body;
+        this.etag = etag;
+    }
+
+    /**
+     * Serializes the status of every registry module.
+     *
+     * @param snapshot snapshot to serialize
+     * @param registry modules to list
+     * @return the serialized document
+     */
+    static StatusDocument render(final MetadataSnapshot snapshot, final ModuleRegistry registry) {
+        final StringWriter json = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.beginObject().name("modules").beginArray();
+            for (HellasModule module : registry.modules()) {
+                final ModMetadata metadata = snapshot.get(module.getModId());
+                writer.beginObject()
+                        .name("id").value(module.getModId())
+                        .name("name").value(module.getDisplayName())
+                        .name("installed").value(metadata.isInstalled())
+                        .name("status").value(metadata.getStatus().name())
+                        .name("version").value(metadata.getVersion())
+                        .name("metadataHash");
+                if (metadata.isInstalled()) {
+                    writer.value(metadata.getChecksum());
+                } else {
+                    writer.nullValue();
+                }
+                writer.endObject();
+            }
+            writer.endArray().endObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        final byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        final String etag = Hashes.hex(Hashes.sha256().digest(body), ETAG_HEX_LENGTH);
+        return new StatusDocument(snapshot, body, '"' + etag + '"');
+    }
+
+    /**
+     * @return the snapshot the document was rendered from
+     */
+    MetadataSnapshot getSource() {
+        return source;
+    }
+
+    /**
+     * @return the UTF-8 encoded JSON body; callers must not modify it
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the quoted entity tag of the body
+     */
+    String getEtag() {
+        return etag;
+    }
+}
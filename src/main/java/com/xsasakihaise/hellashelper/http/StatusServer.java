@@ -0,0 +1,181 @@
+package com.xsasakihaise.hellashelper.http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.xsasakihaise.hellashelper.metadata.MetadataRepository;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional read-only HTTP endpoint that serves the suite status as JSON.
+ * <p>
+ * Built on the JDK's {@link HttpServer} and served by its own daemon thread,
+ * so monitoring never touches the server thread. The JSON is serialized once
+ * per published metadata snapshot; requests whose {@code If-None-Match}
+ * header carries the current entity tag are answered with
+ * {@code 304 Not Modified} and no body.
+ * </p>
+ */
+public final class StatusServer implements AutoCloseable {
+    public static final String PATH = "/hellas/status";
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final MetadataRepository repository;
+    private final ModuleRegistry registry;
+    private volatile StatusDocument document;
+
+    private StatusServer(final HttpServer server, final MetadataRepository repository, final ModuleRegistry registry) {
+        this.server = server;
+        this.repository = repository;
+        this.registry = registry;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "HellasHelper-Status");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Binds the endpoint and starts serving.
+     *
+     * @param address    address to bind to
+     * @param repository repository providing the metadata snapshot
+     * @param registry   modules to list
+     * @return the running server
+     * @throws IOException when the address cannot be bound
+     */
+    public static StatusServer start(final InetSocketAddress address, final MetadataRepository repository,
+                                     final ModuleRegistry registry) throws IOException {
+        final StatusServer status = new StatusServer(HttpServer.create(address, 0), Objects.requireNonNull(repository),
+                Objects.requireNonNull(registry));
+        status.server.createContext(PATH, status::handle);
+        status.server.setExecutor(status.executor);
+        status.server.start();
+        LOGGER.info("Serving Hellas suite status on http://{}:{}{}", address.getHostString(), address.getPort(), PATH);
+        return status;
+    }
+
+    /**
+     * Serializes a newly published snapshot ahead of the next request.
+     *
+     * @param snapshot the published snapshot
+     */
+    public void onSnapshot(final MetadataSnapshot snapshot) {
+        document(snapshot);
+    }
+
+    /**
+     * Returns the serialized document for a snapshot, rendering it when the
+     * snapshot changed.
+     *
+     * @param snapshot snapshot to serialize
+     * @return the serialized document
+     */
+    private StatusDocument document(final MetadataSnapshot snapshot) {
+        final StatusDocument current = document;
+        if (current != null && current.getSource() == snapshot) {
+            return current;
+        }
+
+        final StatusDocument rendered = StatusDocument.render(snapshot, registry);
+        document = rendered;
+        return rendered;
+    }
+
+    /**
+     * Answers one request on the endpoint thread.
+     *
+     * @param exchange the request
+     * @throws IOException when the response cannot be written
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final String method = exchange.getRequestMethod();
+            final boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1L);
+                return;
+            }
+
+            final MetadataSnapshot snapshot = repository.peek();
+            if (snapshot == null) {
+                exchange.getResponseHeaders().set("Retry-After", "5");
+                exchange.sendResponseHeaders(503, -1L);
+                return;
+            }
+
+            final StatusDocument current = document(snapshot);
+            final Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", current.getEtag());
+            headers.set("Cache-Control", "no-cache");
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), current.getEtag())) {
+                exchange.sendResponseHeaders(304, -1L);
+                return;
+            }
+
+            headers.set("Content-Type", "application/json; charset=utf-8");
+            if (head) {
+                headers.set("Content-Length", Integer.toString(current.getBody().length));
+                exchange.sendResponseHeaders(200, -1L);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, current.getBody().length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(current.getBody());
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to serve the Hellas suite status.", ex);
+            exchange.sendResponseHeaders(500, -1L);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @param header value of the {@code If-None-Match} header, may be {@code null}
+     * @param etag   current entity tag
+     * @return {@code true} if the header lists the tag or {@code *}
+     */
+    private static boolean matches(final String header, final String etag) {
+        if (header == null) {
+            return false;
+        }
+
+        for (String candidate : header.split(",")) {
+            final String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops accepting requests and shuts the endpoint thread down.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1L, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
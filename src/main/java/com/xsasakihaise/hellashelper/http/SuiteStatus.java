@@ -0,0 +1,67 @@
+package com.xsasakihaise.hellashelper.http;
+
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.metadata.MetadataRepository;
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Owns the {@link StatusServer} of the running game server, if the endpoint
+ * is enabled in the config.
+ */
+public final class SuiteStatus {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static volatile StatusServer server;
+
+    private SuiteStatus() {
+    }
+
+    /**
+     * Starts the read-only status endpoint, if enabled in the config.
+     *
+     * @param repository repository providing the metadata snapshot
+     * @param registry   modules to list
+     */
+    public static synchronized void start(final MetadataRepository repository, final ModuleRegistry registry) {
+        if (server != null || !HellasHelperConfig.HTTP_ENABLED.get()) {
+            return;
+        }
+
+        final InetSocketAddress address = new InetSocketAddress(HellasHelperConfig.HTTP_ADDRESS.get(),
+                HellasHelperConfig.HTTP_PORT.get());
+        try {
+            server = StatusServer.start(address, repository, registry);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Unable to start the Hellas status endpoint on {}.", address, ex);
+        }
+    }
+
+    /**
+     * Serializes a newly published snapshot ahead of the next request, if the
+     * endpoint is running.
+     *
+     * @param snapshot the published snapshot
+     */
+    public static void onSnapshot(final MetadataSnapshot snapshot) {
+        final StatusServer current = server;
+        if (current != null) {
+            current.onSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * Stops the endpoint started by {@link #start(MetadataRepository, ModuleRegistry)}.
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 helpers shared by the checksums, ETags, manifests and fingerprints
+ * of the helper.
+ */
+public final class Hashes {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Hashes() {
+    }
+
+    /**
+     * @return a new SHA-256 digest
+     */
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * @param bytes  digest output
+     * @param length number of hex characters to return, at most twice the number of bytes
+     * @return the first {@code length} lower-case hex characters of the bytes
+     */
+    public static String hex(final byte[] bytes, final int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            final int value = bytes[i / 2];
+            chars[i] = HEX[(i & 1) == 0 ? (value >> 4) & 0xF : value & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param value  string to check
+     * @param length expected number of characters
+     * @return {@code true} if the string is exactly {@code length} lower-case hex characters
+     */
+    public static boolean isHex(final String value, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list view over a string table of a {@link MetadataIndex}.
+ * <p>
+ * Entries are decoded from the underlying buffer on every access and never
+ * kept by the list, so the buffer stays the only copy of the table. Short
+ * entries come from the suite-wide {@link StringPool}, so a dependency
+ * declared by several modules is held once and reading it again allocates
+ * nothing; longer entries, such as feature texts, are decoded afresh.
+ * </p>
+ */
+final class IndexedStringList extends AbstractList<String> implements RandomAccess {
+    private final ByteBuffer buffer;
+    private final int offsetsStart;
+    private final int size;
+
+    /**
+     * @param buffer       index buffer holding the table
+     * @param offsetsStart absolute offset of the first string offset in the table
+     * @param size         number of entries in the table
+     */
+    IndexedStringList(final ByteBuffer buffer, final int offsetsStart, final int size) {
+        this.buffer = buffer;
+        this.offsetsStart = offsetsStart;
+        this.size = size;
+    }
+
+    @Override
+    public String get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return StringPool.string(buffer, buffer.getInt(offsetsStart + index * 4));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,187 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reader for the binary metadata index produced by the {@code compileMetadataIndex}
+ * Gradle task and shipped as {@code config/<modid>.hmi} next to the JSON file.
+ * The streaming JSON parser produces the same representation in memory, so
+ * every loaded {@link ModMetadata} is backed by an index.
+ * <p>
+ * The index is read into a single buffer (memory-mapped when it lives on the
+ * default file system) and never turned into a document tree. Strings are
+ * only decoded when they are first requested. The layout is big-endian:
+ * </p>
+ * <pre>
+ * int   magic          'HHMI'
+ * short formatVersion  1
+ * short flags          reserved, 0
+ * int   versionOffset  offset of the version string, or -1
+ * int   dependencies   offset of the dependencies table
+ * int   features       offset of the features table
+ *
+ * string: int byteLength, UTF-8 bytes
+ * table:  int count, count * int string offsets
+ * </pre>
+ */
+public final class MetadataIndex {
+    /** File extension of the index, next to the {@code .json} metadata file. */
+    public static final String EXTENSION = ".hmi";
+
+    static final int MAGIC = 0x48484D49;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+
+    private final ByteBuffer buffer;
+    private final int versionOffset;
+    private final int dependenciesOffset;
+    private final int featuresOffset;
+
+    private MetadataIndex(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a Hellas metadata index");
+        }
+
+        final int formatVersion = buffer.getShort(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported metadata index format " + formatVersion);
+        }
+
+        this.versionOffset = buffer.getInt(8);
+        this.dependenciesOffset = buffer.getInt(12);
+        this.featuresOffset = buffer.getInt(16);
+
+        if (versionOffset != -1) {
+            checkString(versionOffset);
+        }
+        checkTable(dependenciesOffset);
+        checkTable(featuresOffset);
+    }
+
+    /**
+     * Opens the index stored at the given path.
+     *
+     * @param path location of the {@code .hmi} file, possibly inside a mod JAR
+     * @return the opened index
+     * @throws IOException when the file cannot be read or is not a valid index
+     */
+    public static MetadataIndex read(final Path path) throws IOException {
+        if (path.getFileSystem() != FileSystems.getDefault()) {
+            return new MetadataIndex(ByteBuffer.wrap(Files.readAllBytes(path)));
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MetadataIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Opens an index that has already been read or built in memory.
+     *
+     * @param buffer buffer holding the complete index
+     * @return the opened index
+     * @throws IOException when the buffer is not a valid index
+     */
+    static MetadataIndex wrap(final ByteBuffer buffer) throws IOException {
+        return new MetadataIndex(buffer);
+    }
+
+    /**
+     * @return the version declared in the index, if any
+     */
+    public Optional<String> version() {
+        return versionOffset == -1 ? Optional.empty() : Optional.of(StringPool.string(buffer, versionOffset));
+    }
+
+    /**
+     * @return lazily decoded view of the declared dependencies
+     */
+    public List<String> dependencies() {
+        return table(dependenciesOffset);
+    }
+
+    /**
+     * @return lazily decoded view of the declared features
+     */
+    public List<String> features() {
+        return table(featuresOffset);
+    }
+
+    /**
+     * @param offset absolute offset of a string table
+     * @return lazily decoded view of the table entries
+     */
+    private List<String> table(final int offset) {
+        final int count = buffer.getInt(offset);
+        return count == 0 ? Collections.<String>emptyList() : new IndexedStringList(buffer, offset + 4, count);
+    }
+
+    /**
+     * Verifies that a string table and every string it references lie within the buffer.
+     *
+     * @param offset absolute offset of the table
+     * @throws IOException when the table is out of bounds
+     */
+    private void checkTable(final int offset) throws IOException {
+        if (offset < HEADER_SIZE || offset > buffer.capacity() - 4) {
+            throw new IOException("Metadata index table offset out of bounds: " + offset);
+        }
+
+        final int count = buffer.getInt(offset);
+        if (count < 0 || count > (buffer.capacity() - offset - 4) / 4) {
+            throw new IOException("Metadata index table size out of bounds: " + count);
+        }
+
+        for (int i = 0; i < count; i++) {
+            checkString(buffer.getInt(offset + 4 + i * 4));
+        }
+    }
+
+    /**
+     * Verifies that a length-prefixed string lies within the buffer.
+     *
+     * @param offset absolute offset of the length prefix
+     * @throws IOException when the string is out of bounds
+     */
+    private void checkString(final int offset) throws IOException {
+        if (offset < HEADER_SIZE || offset > buffer.capacity() - 4) {
+            throw new IOException("Metadata index string offset out of bounds: " + offset);
+        }
+
+        final int length = buffer.getInt(offset);
+        if (length < 0 || length > buffer.capacity() - offset - 4) {
+            throw new IOException("Metadata index string length out of bounds: " + length);
+        }
+    }
+
+    /**
+     * Decodes the length-prefixed UTF-8 string stored at the given offset.
+     *
+     * @param buffer index buffer
+     * @param offset absolute offset of the length prefix
+     * @return the decoded string
+     */
+    static String decode(final ByteBuffer buffer, final int offset) {
+        final int length = buffer.getInt(offset);
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset + 4, length, StandardCharsets.UTF_8);
+        }
+
+        final byte[] bytes = new byte[length];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
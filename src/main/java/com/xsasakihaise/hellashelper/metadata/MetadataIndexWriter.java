@@ -0,0 +1,151 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Builds an in-memory {@link MetadataIndex} while metadata is being streamed.
+ * <p>
+ * Strings are appended to a single UTF-8 byte array as soon as they are read
+ * and only their offsets are remembered, so the parsed metadata never exists
+ * as a list of {@link String} objects. The string tables are written after
+ * the strings once parsing completes, which the index layout allows because
+ * every table entry is an absolute offset.
+ * </p>
+ */
+final class MetadataIndexWriter {
+    private static final int HEADER_SIZE = 20;
+
+    private final Table dependencies = new Table();
+    private final Table features = new Table();
+    private byte[] data = new byte[512];
+    private int size = HEADER_SIZE;
+    private int versionOffset = -1;
+
+    /**
+     * @param version version string declared by the metadata
+     */
+    void version(final String version) {
+        versionOffset = append(version);
+    }
+
+    /**
+     * @return the table collecting dependency entries
+     */
+    Table dependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return the table collecting feature entries
+     */
+    Table features() {
+        return features;
+    }
+
+    /**
+     * Writes the string tables and header and opens the result as an index.
+     *
+     * @return the finished index
+     * @throws IOException if the written data does not form a valid index
+     */
+    MetadataIndex build() throws IOException {
+        final int dependenciesOffset = writeTable(dependencies);
+        final int featuresOffset = writeTable(features);
+
+        final ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(data, size));
+        buffer.putInt(0, MetadataIndex.MAGIC);
+        buffer.putShort(4, (short) MetadataIndex.FORMAT_VERSION);
+        buffer.putShort(6, (short) 0);
+        buffer.putInt(8, versionOffset);
+        buffer.putInt(12, dependenciesOffset);
+        buffer.putInt(16, featuresOffset);
+        return MetadataIndex.wrap(buffer);
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string.
+     *
+     * @param value string to append
+     * @return absolute offset of the string
+     */
+    private int append(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final int offset = size;
+        appendInt(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, data, size, bytes.length);
+        size += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Appends a string table built from the collected offsets.
+     *
+     * @param table table to write
+     * @return absolute offset of the table
+     */
+    private int writeTable(final Table table) {
+        final int offset = size;
+        appendInt(table.count);
+        for (int i = 0; i < table.count; i++) {
+            appendInt(table.offsets[i]);
+        }
+        return offset;
+    }
+
+    /**
+     * @param value big-endian integer to append
+     */
+    private void appendInt(final int value) {
+        ensureCapacity(4);
+        data[size] = (byte) (value >>> 24);
+        data[size + 1] = (byte) (value >>> 16);
+        data[size + 2] = (byte) (value >>> 8);
+        data[size + 3] = (byte) value;
+        size += 4;
+    }
+
+    /**
+     * @param additional number of bytes that are about to be appended
+     */
+    private void ensureCapacity(final int additional) {
+        if (size + additional > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + additional));
+        }
+    }
+
+    /**
+     * Offsets of the strings that belong to one table of the index.
+     */
+    final class Table {
+        private int[] offsets = new int[16];
+        private int count;
+
+        /**
+         * @param value entry to append to the table
+         */
+        void add(final String value) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = append(value);
+        }
+
+        /**
+         * @return number of entries added so far
+         */
+        int size() {
+            return count;
+        }
+
+        /**
+         * Drops all entries, e.g. when a key is declared twice in the document.
+         */
+        void clear() {
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import com.xsasakihaise.hellashelper.stats.HelperMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+
+/**
+ * Reads the {@code config/<modid>.json} metadata document bundled inside a Hellas mod.
+ * <p>
+ * Mods built with the {@code compileMetadataIndex} Gradle task also ship a
+ * binary {@link MetadataIndex} next to the JSON file. The index is preferred
+ * when present and valid; otherwise the loader falls back to parsing the JSON,
+ * so mods built without the task keep working.
+ * </p>
+ * <p>
+ * A {@code <modid>.json} file in the optional override directory shadows the
+ * metadata bundled in the mod, so server owners can edit the text without
+ * rebuilding the JAR.
+ * </p>
+ * <p>
+ * The loader never throws: missing mods, missing files and malformed documents
+ * are all mapped to the matching {@link ModMetadata.Status} so that the result
+ * can be stored in a {@link MetadataSnapshot} as-is.
+ * </p>
+ */
+public final class MetadataLoader {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final ModLookup mods;
+    private final Path overrideDirectory;
+    private final IntSupplier maxDocumentBytes;
+    private final IntSupplier maxEntries;
+
+    /**
+     * @param mods             view of the installed mods
+     * @param maxDocumentBytes supplies the maximum accepted metadata file size
+     * @param maxEntries       supplies the maximum number of entries kept per list
+     */
+    public MetadataLoader(final ModLookup mods, final IntSupplier maxDocumentBytes, final IntSupplier maxEntries) {
+        this(mods, null, maxDocumentBytes, maxEntries);
+    }
+
+    /**
+     * @param mods              view of the installed mods
+     * @param overrideDirectory directory holding {@code <modid>.json} overrides, or {@code null} for none
+     * @param maxDocumentBytes  supplies the maximum accepted metadata file size
+     * @param maxEntries        supplies the maximum number of entries kept per list
+     */
+    public MetadataLoader(final ModLookup mods, final Path overrideDirectory, final IntSupplier maxDocumentBytes,
+                          final IntSupplier maxEntries) {
+        this.mods = Objects.requireNonNull(mods);
+        this.overrideDirectory = overrideDirectory;
+        this.maxDocumentBytes = Objects.requireNonNull(maxDocumentBytes);
+        this.maxEntries = Objects.requireNonNull(maxEntries);
+    }
+
+    /**
+     * Loads the JSON metadata document bundled inside the target mod.
+     * <p>
+     * The document is expected to live under {@code config/<modid>.json} and
+     * can include the version, dependencies, and a set of friendly feature
+     * descriptions. It is streamed with {@link MetadataParser} under the
+     * configured size and entry limits. An override file takes precedence over
+     * the bundled metadata. Invalid, oversized or missing files are tolerated and result in a fallback entry that only carries the
+     * version reported by Forge.
+     * </p>
+     *
+     * @param modId id of the mod whose metadata should be loaded
+     * @return metadata entry describing the mod
+     */
+    public ModMetadata load(final String modId) {
+        if (!mods.isLoaded(modId)) {
+            return ModMetadata.missing();
+        }
+
+        final long maxBytes = maxDocumentBytes.getAsInt();
+        final Optional<ModMetadata> override = loadOverride(modId, maxBytes);
+        if (override.isPresent()) {
+            return override.get();
+        }
+
+        final Optional<Path> indexPath = mods.findResource(modId, "config/" + modId + MetadataIndex.EXTENSION);
+        if (indexPath.isPresent()) {
+            try {
+                checkSize(indexPath.get(), maxBytes);
+                return indexed(modId, MetadataIndex.read(indexPath.get()));
+            } catch (IOException | RuntimeException ex) {
+                HelperMetrics.recordParseFailure();
+                LOGGER.warn("Ignoring unreadable metadata index for {}, falling back to JSON.", modId, ex);
+            }
+        }
+
+        final String metadataFile = "config/" + modId + ".json";
+        final Optional<Path> metadataPath = mods.findResource(modId, metadataFile);
+        if (!metadataPath.isPresent()) {
+            LOGGER.debug("No metadata file found for {} at {}.", modId, metadataFile);
+            return fallback(modId);
+        }
+
+        try {
+            return indexed(modId, parse(modId, metadataPath.get(), maxBytes));
+        } catch (IOException | RuntimeException ex) {
+            HelperMetrics.recordParseFailure();
+            LOGGER.warn("Failed to read metadata for {}", modId, ex);
+            return fallback(modId);
+        }
+    }
+
+    /**
+     * Attempts to read the installed version number directly from Forge's
+     * mod container if the metadata file does not provide it.
+     *
+     * @param modId id of the mod being queried
+     * @return optional version string if the container is available
+     */
+    public Optional<String> resolveInstalledVersion(final String modId) {
+        return mods.installedVersion(modId);
+    }
+
+    /**
+     * Reads the server-side override for a mod, if one exists.
+     *
+     * @param modId    id of the mod being queried
+     * @param maxBytes maximum accepted document size
+     * @return the override metadata, or empty when there is no usable override
+     */
+    private Optional<ModMetadata> loadOverride(final String modId, final long maxBytes) {
+        if (overrideDirectory == null) {
+            return Optional.empty();
+        }
+
+        final Path path = overrideDirectory.resolve(modId + ".json");
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(indexed(modId, parse(modId, path, maxBytes)));
+        } catch (IOException | RuntimeException ex) {
+            HelperMetrics.recordParseFailure();
+            LOGGER.warn("Ignoring unreadable metadata override {}, using the bundled metadata.", path, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Streams a JSON metadata document into an in-memory index.
+     *
+     * @param modId    id of the mod being queried
+     * @param path     location of the JSON document
+     * @param maxBytes maximum accepted document size
+     * @return the parsed metadata
+     * @throws IOException when the document cannot be read, is malformed or too large
+     */
+    private MetadataIndex parse(final String modId, final Path path, final long maxBytes) throws IOException {
+        checkSize(path, maxBytes);
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                MetadataParser.limit(Files.newInputStream(path), maxBytes), StandardCharsets.UTF_8))) {
+            final int limit = maxEntries.getAsInt();
+            final MetadataParser.Result result = MetadataParser.parse(reader, limit);
+            if (result.isTruncated()) {
+                LOGGER.warn("Metadata for {} declares more than {} entries per list; the rest was ignored.",
+                        modId, limit);
+            }
+            return result.getIndex();
+        }
+    }
+
+    /**
+     * Builds the fallback entry for an installed mod without usable metadata.
+     *
+     * @param modId id of the mod being queried
+     * @return fallback metadata entry
+     */
+    private ModMetadata fallback(final String modId) {
+        return ModMetadata.fallback(resolveInstalledVersion(modId).orElse("Unknown"));
+    }
+
+    /**
+     * Builds the entry for a successfully read index, filling in the version from Forge if needed.
+     *
+     * @param modId id of the mod being queried
+     * @param index index holding the metadata
+     * @return loaded metadata entry
+     */
+    private ModMetadata indexed(final String modId, final MetadataIndex index) {
+        final String version = index.version()
+                .orElseGet(() -> resolveInstalledVersion(modId).orElse("Unknown"));
+        return ModMetadata.indexed(version, index);
+    }
+
+    /**
+     * Rejects metadata files that are larger than the configured limit before reading them.
+     *
+     * @param path     file to check
+     * @param maxBytes maximum accepted size
+     * @throws IOException when the file is too large or its size cannot be read
+     */
+    private static void checkSize(final Path path, final long maxBytes) throws IOException {
+        final long size = Files.size(path);
+        if (size > maxBytes) {
+            throw new IOException("Metadata file " + path + " is " + size + " bytes, limit is " + maxBytes);
+        }
+    }
+}
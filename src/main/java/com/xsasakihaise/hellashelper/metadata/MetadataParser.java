@@ -0,0 +1,187 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Streaming parser for {@code config/<modid>.json} metadata documents.
+ * <p>
+ * The document is read token by token with a {@link JsonReader} and every
+ * string is written straight into a {@link MetadataIndexWriter}, so no JSON
+ * tree and no intermediate lists are created. Array entries beyond the
+ * configured limit are skipped instead of being buffered; the size of the
+ * document itself is bounded by {@link #limit(InputStream, long)}.
+ * </p>
+ */
+final class MetadataParser {
+    private MetadataParser() {
+    }
+
+    /**
+     * Parses a metadata document into an in-memory index.
+     *
+     * @param source     reader positioned at the start of the document
+     * @param maxEntries maximum number of entries kept per array
+     * @return the parse result
+     * @throws IOException when the document is malformed or exceeds its size limit
+     */
+    static Result parse(final Reader source, final int maxEntries) throws IOException {
+        final JsonReader reader = new JsonReader(source);
+        reader.setLenient(true);
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Metadata is not a JSON object");
+        }
+
+        final MetadataIndexWriter writer = new MetadataIndexWriter();
+        boolean truncated = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if ("version".equals(name)) {
+                final String version = readPrimitive(reader);
+                if (version != null) {
+                    writer.version(version);
+                }
+            } else if ("dependencies".equals(name)) {
+                truncated |= readArray(reader, writer.dependencies(), maxEntries);
+            } else if ("features".equals(name)) {
+                truncated |= readArray(reader, writer.features(), maxEntries);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new Result(writer.build(), truncated);
+    }
+
+    /**
+     * Wraps a stream so that reading more than {@code maxBytes} bytes fails.
+     *
+     * @param stream   stream to wrap
+     * @param maxBytes maximum number of bytes that may be read
+     * @return the bounded stream
+     */
+    static InputStream limit(final InputStream stream, final long maxBytes) {
+        return new FilterInputStream(stream) {
+            private long remaining = maxBytes;
+
+            @Override
+            public int read() throws IOException {
+                final int value = super.read();
+                if (value != -1) {
+                    consume(1);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                final int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    consume(read);
+                }
+                return read;
+            }
+
+            /**
+             * @param count number of bytes that were just read
+             * @throws IOException when the limit has been exceeded
+             */
+            private void consume(final int count) throws IOException {
+                remaining -= count;
+                if (remaining < 0) {
+                    throw new IOException("Metadata document exceeds " + maxBytes + " bytes");
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads a primitive value as a string, skipping any other value.
+     *
+     * @param reader reader positioned at the value
+     * @return the string form of the primitive, or {@code null} if the value is not primitive
+     * @throws IOException when the document is malformed
+     */
+    private static String readPrimitive(final JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(reader.nextBoolean());
+        }
+
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * Streams a JSON array of primitives into an index table.
+     *
+     * @param reader     reader positioned at the value
+     * @param table      table receiving the entries
+     * @param maxEntries maximum number of entries to keep
+     * @return {@code true} if entries were dropped because of the limit
+     * @throws IOException when the document is malformed
+     */
+    private static boolean readArray(final JsonReader reader, final MetadataIndexWriter.Table table,
+                                     final int maxEntries) throws IOException {
+        table.clear();
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+
+        boolean truncated = false;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (table.size() >= maxEntries) {
+                reader.skipValue();
+                truncated = true;
+                continue;
+            }
+
+            final String value = readPrimitive(reader);
+            if (value != null) {
+                table.add(value);
+            }
+        }
+        reader.endArray();
+        return truncated;
+    }
+
+    /**
+     * Outcome of parsing a metadata document.
+     */
+    static final class Result {
+        private final MetadataIndex index;
+        private final boolean truncated;
+
+        private Result(final MetadataIndex index, final boolean truncated) {
+            this.index = index;
+            this.truncated = truncated;
+        }
+
+        /**
+         * @return the parsed metadata
+         */
+        MetadataIndex getIndex() {
+            return index;
+        }
+
+        /**
+         * @return {@code true} if array entries were dropped because of the entry limit
+         */
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import com.xsasakihaise.hellashelper.stats.HelperMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Owns the {@link MetadataSnapshot} shared by all {@code /hellas} commands.
+ * <p>
+ * The snapshot is built once during server startup by {@link #preload()}, which
+ * spreads the JAR reads for every mod across a short-lived fork-join pool.
+ * Command handlers only call {@link #snapshot()}, which is a plain atomic
+ * read once the preload has completed.
+ * </p>
+ * <p>
+ * {@link #reload(Collection)} re-reads individual mods and publishes a new
+ * snapshot by swapping the reference. Writers serialize on the repository,
+ * readers never lock and keep using the snapshot they already hold.
+ * </p>
+ */
+public final class MetadataRepository {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final MetadataLoader loader;
+    private final List<String> modIds;
+    private final AtomicReference<MetadataSnapshot> snapshot = new AtomicReference<>();
+    private final List<Consumer<MetadataSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param loader loader used to read each mod's metadata
+     * @param modIds ids of every mod that should be present in the snapshot
+     */
+    public MetadataRepository(final MetadataLoader loader, final Collection<String> modIds) {
+        this.loader = Objects.requireNonNull(loader);
+        this.modIds = Collections.unmodifiableList(new ArrayList<>(modIds));
+    }
+
+    /**
+     * Loads the metadata of every known mod in parallel and publishes the result.
+     *
+     * @return the freshly published snapshot
+     */
+    public synchronized MetadataSnapshot preload() {
+        final long start = System.nanoTime();
+        final MetadataSnapshot loaded = load();
+        publish(loaded);
+
+        final long elapsed = System.nanoTime() - start;
+        HelperMetrics.recordPreload(elapsed, modIds.size());
+        LOGGER.info("Preloaded metadata for {} Hellas mods in {} ms.", modIds.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return loaded;
+    }
+
+    /**
+     * Returns the current snapshot without ever triggering a load.
+     *
+     * @return the published snapshot, or {@code null} while none is available
+     */
+    public MetadataSnapshot peek() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns the current snapshot, building it on the calling thread if the
+     * startup preload has not run yet.
+     *
+     * @return the current metadata snapshot
+     */
+    public MetadataSnapshot snapshot() {
+        final MetadataSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (snapshot.get() == null) {
+                publish(load());
+            }
+            return snapshot.get();
+        }
+    }
+
+    /**
+     * Re-reads the metadata of the given mods and publishes a snapshot in
+     * which only their entries are replaced. Unknown ids are ignored.
+     *
+     * @param changed ids of the mods whose metadata changed
+     * @return the published snapshot
+     */
+    public synchronized MetadataSnapshot reload(final Collection<String> changed) {
+        final MetadataSnapshot current = snapshot();
+        final Map<String, ModMetadata> updated = new LinkedHashMap<>();
+        for (String modId : changed) {
+            if (modIds.contains(modId)) {
+                updated.put(modId, loadOne(modId));
+            }
+        }
+
+        if (updated.isEmpty()) {
+            return current;
+        }
+
+        final MetadataSnapshot next = current.with(updated);
+        publish(next);
+        LOGGER.info("Reloaded metadata for {}.", updated.keySet());
+        return next;
+    }
+
+    /**
+     * Registers a listener that is called with every newly published
+     * snapshot, on the thread that published it, so that derived data such as
+     * search indexes can be rebuilt off the command path.
+     *
+     * @param listener listener to call
+     */
+    public void addListener(final Consumer<MetadataSnapshot> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Swaps in a new snapshot and notifies the listeners.
+     *
+     * @param next snapshot to publish
+     */
+    private void publish(final MetadataSnapshot next) {
+        snapshot.set(next);
+        for (Consumer<MetadataSnapshot> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Metadata snapshot listener failed.", ex);
+            }
+        }
+    }
+
+    /**
+     * @return ids of every mod in the snapshot, in registration order
+     */
+    public List<String> getModIds() {
+        return modIds;
+    }
+
+    /**
+     * Reads the metadata of every known mod, one fork-join task per mod.
+     *
+     * @return a new snapshot containing an entry for every known mod id
+     */
+    private MetadataSnapshot load() {
+        final int parallelism = Math.max(1, Math.min(modIds.size(), Runtime.getRuntime().availableProcessors()));
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, MetadataRepository::newWorker, null, false);
+        try {
+            final List<ForkJoinTask<ModMetadata>> tasks = new ArrayList<>(modIds.size());
+            for (String modId : modIds) {
+                tasks.add(pool.submit(() -> loadOne(modId)));
+            }
+
+            final Map<String, ModMetadata> entries = new LinkedHashMap<>();
+            for (int i = 0; i < modIds.size(); i++) {
+                entries.put(modIds.get(i), tasks.get(i).join());
+            }
+            return new MetadataSnapshot(entries);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reads the metadata of a single mod, recording the load time.
+     *
+     * @param modId id of the mod
+     * @return the loaded entry
+     */
+    private ModMetadata loadOne(final String modId) {
+        return HelperMetrics.timeMetadataLoad(modId, () -> loader.load(modId), metadata -> metadata.getStatus().name());
+    }
+
+    /**
+     * Creates a named worker that resolves classes through the mod class loader.
+     *
+     * @param pool pool that owns the worker
+     * @return the new worker thread
+     */
+    private static ForkJoinWorkerThread newWorker(final ForkJoinPool pool) {
+        final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("HellasHelper-Metadata-" + worker.getPoolIndex());
+        worker.setContextClassLoader(MetadataRepository.class.getClassLoader());
+        return worker;
+    }
+}
@@ -0,0 +1,55 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the metadata of every known Hellas mod at a point in time.
+ * <p>
+ * Snapshots are never modified after construction (see {@link MetadataRepository}),
+ * so they can be shared freely between the server thread and any other thread;
+ * reloading metadata publishes a new snapshot instead.
+ * Every requested mod id has an entry; mods that are missing or ship broken
+ * metadata are represented by the corresponding fallback {@link ModMetadata}.
+ * </p>
+ */
+public final class MetadataSnapshot {
+    private static final ModMetadata MISSING = ModMetadata.missing();
+
+    private final Map<String, ModMetadata> entries;
+
+    MetadataSnapshot(final Map<String, ModMetadata> entries) {
+        this.entries = Collections.unmodifiableMap(new LinkedHashMap<>(entries));
+    }
+
+    /**
+     * Looks up the metadata entry for the given mod.
+     *
+     * @param modId id of the mod being queried
+     * @return the recorded entry, or a {@link ModMetadata.Status#MISSING} entry for unknown ids
+     */
+    public ModMetadata get(final String modId) {
+        final ModMetadata metadata = entries.get(modId);
+        return metadata != null ? metadata : MISSING;
+    }
+
+    /**
+     * Creates a copy of this snapshot with some entries replaced.
+     *
+     * @param changed entries to add or replace, keyed by mod id
+     * @return the new snapshot; this snapshot is left untouched
+     */
+    MetadataSnapshot with(final Map<String, ModMetadata> changed) {
+        final Map<String, ModMetadata> updated = new LinkedHashMap<>(entries);
+        updated.putAll(changed);
+        return new MetadataSnapshot(updated);
+    }
+
+    /**
+     * @return all entries keyed by mod id, in registration order
+     */
+    public Map<String, ModMetadata> getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,142 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the metadata override directory and reloads the mods whose
+ * {@code <modid>.json} override was created, changed or deleted.
+ * <p>
+ * Events are collected on a single daemon thread and coalesced for a short
+ * settle period, since editors usually write a file in several steps. Only
+ * the affected mods are re-read, through {@link MetadataRepository#reload(java.util.Collection)},
+ * so command handlers keep reading the previous snapshot until the new one is
+ * published.
+ * </p>
+ */
+public final class MetadataWatcher implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String SUFFIX = ".json";
+    private static final long SETTLE_MS = 250L;
+
+    private final Path directory;
+    private final MetadataRepository repository;
+    private final WatchService service;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private MetadataWatcher(final Path directory, final MetadataRepository repository, final WatchService service) {
+        this.directory = directory;
+        this.repository = repository;
+        this.service = service;
+        this.thread = new Thread(this::run, "HellasHelper-MetadataWatcher");
+        this.thread.setDaemon(true);
+        this.thread.setContextClassLoader(MetadataWatcher.class.getClassLoader());
+    }
+
+    /**
+     * Creates the override directory if needed and starts watching it.
+     *
+     * @param directory  override directory to watch
+     * @param repository repository to reload when an override changes
+     * @return the running watcher
+     * @throws IOException when the directory cannot be created or watched
+     */
+    public static MetadataWatcher start(final Path directory, final MetadataRepository repository) throws IOException {
+        Files.createDirectories(directory);
+        final WatchService service = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException ex) {
+            service.close();
+            throw ex;
+        }
+
+        final MetadataWatcher watcher = new MetadataWatcher(directory, Objects.requireNonNull(repository), service);
+        watcher.thread.start();
+        LOGGER.info("Watching {} for metadata overrides.", directory);
+        return watcher;
+    }
+
+    /**
+     * Main loop of the watcher thread.
+     */
+    private void run() {
+        while (running) {
+            final Set<String> changed = new LinkedHashSet<>();
+            try {
+                collect(service.take(), changed);
+                WatchKey next;
+                while (running && (next = service.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next, changed);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException ex) {
+                return;
+            }
+
+            if (!changed.isEmpty()) {
+                try {
+                    repository.reload(changed);
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Failed to reload metadata for {}.", changed, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the mod ids affected by the events of a watch key.
+     *
+     * @param key     signalled key
+     * @param changed receives the affected mod ids
+     */
+    private void collect(final WatchKey key, final Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(repository.getModIds());
+                continue;
+            }
+
+            final String fileName = event.context().toString();
+            if (fileName.endsWith(SUFFIX)) {
+                changed.add(fileName.substring(0, fileName.length() - SUFFIX.length()));
+            }
+        }
+
+        if (!key.reset()) {
+            LOGGER.warn("Metadata override directory {} is no longer accessible, hot reload stopped.", directory);
+            running = false;
+        }
+    }
+
+    /**
+     * Stops the watcher thread and releases the watch service.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            service.close();
+        } catch (IOException ex) {
+            LOGGER.debug("Failed to close the metadata watch service.", ex);
+        }
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,36 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Read-only view of the installed mods that metadata is loaded from.
+ * <p>
+ * {@code ModuleRegistry} answers these questions from the Hellas modules it
+ * discovered in Forge's {@code ModList};
+ * keeping them behind an interface lets the loader run against other sources,
+ * such as the in-memory mod lists used by the benchmarks.
+ * </p>
+ */
+public interface ModLookup {
+    /**
+     * @param modId id of the mod to check
+     * @return {@code true} if the mod is loaded in this runtime
+     */
+    boolean isLoaded(String modId);
+
+    /**
+     * Resolves a resource packaged inside the file that provides the given mod.
+     *
+     * @param modId    id of the mod whose file should be searched
+     * @param resource path of the resource relative to the file root
+     * @return the resource path, or empty when the mod file or the resource does not exist
+     */
+    Optional<Path> findResource(String modId, String resource);
+
+    /**
+     * @param modId id of the mod being queried
+     * @return the version Forge reports for the mod, if it is installed
+     */
+    Optional<String> installedVersion(String modId);
+}
@@ -0,0 +1,190 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable DTO that represents the metadata file payload for a specific mod.
+ * <p>
+ * Besides the parsed {@code version}, {@code dependencies} and {@code features}
+ * entries, every instance records how it was obtained. Mods that are not
+ * installed or that ship a missing/broken metadata file still receive an
+ * entry so that command handlers never have to fall back to I/O themselves.
+ * </p>
+ * <p>
+ * Loaded entries keep their lists in a flat {@link MetadataIndex} buffer and
+ * hand out zero-copy views of it; strings are only decoded when read, and
+ * short ones are shared across modules through the {@link StringPool}.
+ * </p>
+ */
+public final class ModMetadata {
+    private static final int CHECKSUM_HEX_LENGTH = 16;
+
+    private final Status status;
+    private final String version;
+    private final List<String> dependencies;
+    private final List<String> features;
+    private volatile String checksum;
+
+    private ModMetadata(final Status status, final String version, final List<String> dependencies,
+                        final List<String> features) {
+        this.status = Objects.requireNonNull(status);
+        this.version = Objects.requireNonNull(version);
+        this.dependencies = dependencies;
+        this.features = features;
+    }
+
+    /**
+     * Creates an entry from lists held elsewhere, e.g. metadata received over
+     * the network. The entries are packed into an in-memory
+     * {@link MetadataIndex} like parsed metadata, so the lists themselves are
+     * not retained.
+     *
+     * @param version      version from the metadata file or Forge
+     * @param dependencies dependency entries declared in the metadata file
+     * @param features     feature blurbs declared in the metadata file
+     * @return metadata entry with {@link Status#LOADED}
+     */
+    public static ModMetadata loaded(final String version, final List<String> dependencies,
+                                     final List<String> features) {
+        final MetadataIndexWriter writer = new MetadataIndexWriter();
+        writer.version(version);
+        for (String dependency : dependencies) {
+            writer.dependencies().add(dependency);
+        }
+        for (String feature : features) {
+            writer.features().add(feature);
+        }
+
+        try {
+            return indexed(version, writer.build());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Metadata index writer produced an invalid index", ex);
+        }
+    }
+
+    /**
+     * Creates an entry backed by a binary {@link MetadataIndex}.
+     * <p>
+     * The lists are the lazily decoded, immutable views of the index and are
+     * stored without copying.
+     * </p>
+     *
+     * @param version version from the index or Forge
+     * @param index   index providing the dependency and feature entries
+     * @return metadata entry with {@link Status#LOADED}
+     */
+    static ModMetadata indexed(final String version, final MetadataIndex index) {
+        return new ModMetadata(Status.LOADED, version, index.dependencies(), index.features());
+    }
+
+    /**
+     * Creates an entry for an installed mod whose metadata file is missing or unreadable.
+     *
+     * @param version version reported by Forge, or {@code "Unknown"}
+     * @return metadata entry with {@link Status#FALLBACK}
+     */
+    public static ModMetadata fallback(final String version) {
+        return new ModMetadata(Status.FALLBACK, version, Collections.<String>emptyList(), Collections.<String>emptyList());
+    }
+
+    /**
+     * Creates an entry for a mod that is not installed in this runtime.
+     *
+     * @return metadata entry with {@link Status#MISSING}
+     */
+    public static ModMetadata missing() {
+        return new ModMetadata(Status.MISSING, "Unknown", Collections.<String>emptyList(), Collections.<String>emptyList());
+    }
+
+    /**
+     * @return how this entry was resolved
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return {@code true} when the described mod is loaded in this runtime
+     */
+    public boolean isInstalled() {
+        return status != Status.MISSING;
+    }
+
+    /**
+     * @return string version resolved from metadata or Forge
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return list of textual dependency entries defined in the metadata file
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return list of human-friendly feature blurbs sourced from metadata
+     */
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    /**
+     * Hashes the content of the entry. The checksum is computed on first use
+     * and then kept, so comparing entries across nodes or responses stays cheap.
+     *
+     * @return truncated hex SHA-256 of the version, dependencies and features
+     */
+    public String getChecksum() {
+        String current = checksum;
+        if (current == null) {
+            final MessageDigest digest = Hashes.sha256();
+            update(digest, version);
+            update(digest, dependencies);
+            update(digest, features);
+
+            current = Hashes.hex(digest.digest(), CHECKSUM_HEX_LENGTH);
+            checksum = current;
+        }
+        return current;
+    }
+
+    /**
+     * @param digest digest to update
+     * @param values list to add, including its length
+     */
+    private static void update(final MessageDigest digest, final List<String> values) {
+        update(digest, Integer.toString(values.size()));
+        for (String value : values) {
+            update(digest, value);
+        }
+    }
+
+    /**
+     * @param digest digest to update
+     * @param value  string to add, terminated so that adjacent values cannot collide
+     */
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Describes where the values of a {@link ModMetadata} entry came from.
+     */
+    public enum Status {
+        /** The metadata file was found and parsed successfully. */
+        LOADED,
+        /** The mod is installed but its metadata file is missing or broken. */
+        FALLBACK,
+        /** The mod is not installed. */
+        MISSING
+    }
+}
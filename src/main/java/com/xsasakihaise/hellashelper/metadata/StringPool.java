@@ -0,0 +1,97 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Suite-wide intern table for the short strings decoded from metadata
+ * indexes, such as versions and dependency ranges that many modules declare
+ * alike.
+ * <p>
+ * The table is looked up with the UTF-8 bytes still in the index buffer, so a
+ * hit returns the shared {@link String} without decoding or allocating. It is
+ * direct-mapped and lossy: a colliding string simply replaces the previous
+ * one, which bounds the table to {@value #CAPACITY} entries of at most
+ * {@value #MAX_BYTES} bytes however often metadata is reloaded. Entries are
+ * immutable, so racing writers can at worst lose an entry, never return a
+ * wrong string. Longer strings, typically feature texts that are unique
+ * anyway, bypass the table.
+ * </p>
+ */
+final class StringPool {
+    static final int MAX_BYTES = 128;
+    private static final int CAPACITY = 1024;
+
+    private static final Entry[] TABLE = new Entry[CAPACITY];
+
+    private StringPool() {
+    }
+
+    /**
+     * Returns the string stored at an offset of an index buffer, shared with
+     * every other index that holds the same bytes.
+     *
+     * @param buffer index buffer
+     * @param offset absolute offset of the length prefix
+     * @return the decoded or shared string
+     */
+    static String string(final ByteBuffer buffer, final int offset) {
+        final int length = buffer.getInt(offset);
+        if (length > MAX_BYTES) {
+            return MetadataIndex.decode(buffer, offset);
+        }
+
+        final int start = offset + 4;
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(start + i);
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+
+        final Entry entry = TABLE[slot];
+        if (entry != null && entry.hash == hash && entry.matches(buffer, start, length)) {
+            return entry.value;
+        }
+
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        final Entry created = new Entry(hash, bytes);
+        TABLE[slot] = created;
+        return created.value;
+    }
+
+    /**
+     * An interned string together with the bytes it was decoded from.
+     */
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final String value;
+
+        private Entry(final int hash, final byte[] bytes) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.value = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @param buffer index buffer
+         * @param start  absolute offset of the first byte
+         * @param length number of bytes
+         * @return {@code true} if the buffer holds exactly the bytes of this entry
+         */
+        private boolean matches(final ByteBuffer buffer, final int start, final int length) {
+            if (bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
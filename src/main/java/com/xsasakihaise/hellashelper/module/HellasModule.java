@@ -0,0 +1,156 @@
+package com.xsasakihaise.hellashelper.module;
+
+import com.xsasakihaise.hellashelper.HellasHelper;
+import net.minecraftforge.fml.ModContainer;
+import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A Hellas module known to the helper, either discovered in the mod list or
+ * expected by configuration.
+ * <p>
+ * Installed modules keep the {@link ModFileInfo} and {@link ModContainer}
+ * resolved during discovery, so resource and version lookups never have to go
+ * through Forge's {@code ModList} again. Expected modules that are not
+ * installed carry neither and only exist so the rollcall can report them.
+ * </p>
+ */
+public final class HellasModule {
+    private static final String NAME_PREFIX = "hellas";
+    private static final String HELPER_LITERAL = "helper";
+
+    private final String modId;
+    private final String displayName;
+    private final String commandLiteral;
+    private final boolean helper;
+    private final ModFileInfo file;
+    private final ModContainer container;
+    private final String installedVersion;
+
+    private HellasModule(final String modId, final String displayName, final ModFileInfo file,
+                         final ModContainer container) {
+        this.modId = Objects.requireNonNull(modId);
+        this.displayName = Objects.requireNonNull(displayName);
+        this.helper = HellasHelper.MOD_ID.equals(modId);
+        this.commandLiteral = helper ? HELPER_LITERAL : modId;
+        this.file = file;
+        this.container = container;
+        this.installedVersion = container != null ? container.getModInfo().getVersion().toString() : null;
+    }
+
+    /**
+     * Creates a module for a mod that is present in the mod list.
+     *
+     * @param modId       id of the mod
+     * @param displayName name reported by Forge, used when the id has no Hellas prefix
+     * @param file        file that provides the mod
+     * @param container   container of the mod, if Forge created one
+     * @return the installed module
+     */
+    public static HellasModule installed(final String modId, final String displayName, final ModFileInfo file,
+                                         final ModContainer container) {
+        return new HellasModule(modId, deriveDisplayName(modId, displayName), Objects.requireNonNull(file), container);
+    }
+
+    /**
+     * Creates a module for an expected mod that is not installed.
+     *
+     * @param modId id of the mod
+     * @return the missing module
+     */
+    public static HellasModule missing(final String modId) {
+        return new HellasModule(modId, deriveDisplayName(modId, modId), null, null);
+    }
+
+    /**
+     * Derives the friendly name used in replies, e.g. {@code hellaswilds} becomes {@code HellasWilds}.
+     *
+     * @param modId    id of the mod
+     * @param fallback name used for ids without the Hellas prefix
+     * @return the display name
+     */
+    private static String deriveDisplayName(final String modId, final String fallback) {
+        if (!modId.startsWith(NAME_PREFIX) || modId.length() == NAME_PREFIX.length()) {
+            return fallback;
+        }
+
+        final String rest = modId.substring(NAME_PREFIX.length());
+        return "Hellas" + rest.substring(0, 1).toUpperCase(Locale.ROOT) + rest.substring(1);
+    }
+
+    /**
+     * @return id of the mod
+     */
+    public String getModId() {
+        return modId;
+    }
+
+    /**
+     * @return friendly name used in replies
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return literal that users type after {@code /hellas} to reach this module
+     */
+    public String getCommandLiteral() {
+        return commandLiteral;
+    }
+
+    /**
+     * @return {@code true} for the helper itself, which also hosts the suite-wide subcommands
+     */
+    public boolean isHelper() {
+        return helper;
+    }
+
+    /**
+     * @return {@code true} if the module was found in the mod list
+     */
+    public boolean isInstalled() {
+        return file != null;
+    }
+
+    /**
+     * Resolves a resource packaged inside the module's file.
+     *
+     * @param resource path of the resource relative to the file root
+     * @return the resource path, or empty when the module is missing or the resource does not exist
+     */
+    public Optional<Path> findResource(final String resource) {
+        if (file == null) {
+            return Optional.empty();
+        }
+
+        final Path path = file.getFile().findResource(resource);
+        return path != null && Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * @return the file or folder the module was loaded from, if it is installed
+     */
+    public Optional<Path> getFilePath() {
+        return file != null ? Optional.ofNullable(file.getFile().getFilePath()) : Optional.empty();
+    }
+
+    /**
+     * @return the container Forge created for the module, if it is installed
+     */
+    public Optional<ModContainer> getContainer() {
+        return Optional.ofNullable(container);
+    }
+
+    /**
+     * @return the version Forge reports for the module, if it is installed
+     */
+    public Optional<String> getInstalledVersion() {
+        return Optional.ofNullable(installedVersion);
+    }
+}
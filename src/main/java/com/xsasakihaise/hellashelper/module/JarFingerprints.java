@@ -0,0 +1,297 @@
+package com.xsasakihaise.hellashelper.module;
+
+import com.xsasakihaise.hellashelper.metadata.Hashes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * SHA-256 fingerprints of the files the installed Hellas modules were loaded
+ * from, so that builds sharing a version string can still be told apart.
+ * <p>
+ * Files are hashed through memory-mapped windows on a short-lived pool of
+ * their own, so the blocking reads never occupy the common fork-join pool
+ * during server start. Results are
+ * kept in a small binary cache keyed by the absolute path, size and
+ * modification time of each file, so a restart only hashes the files that
+ * changed. The cache layout is big-endian:
+ * </p>
+ * <pre>
+ * int   magic          'HHFP'
+ * short formatVersion  1
+ * int   count
+ * count * (UTF path, long size, long modifiedMillis, UTF hex hash)
+ * </pre>
+ * <p>
+ * Cached hashes that are not {@value #HASH_LENGTH} lower-case hex characters
+ * are dropped, so their files are hashed again.
+ * </p>
+ */
+public final class JarFingerprints {
+    /** Number of hex characters shown in replies. */
+    public static final int SHORT_LENGTH = 12;
+    /** Number of hex characters in a full fingerprint. */
+    public static final int HASH_LENGTH = 64;
+
+    static final int MAGIC = 0x48484650;
+    static final int FORMAT_VERSION = 1;
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long MAP_WINDOW = 64L * 1024L * 1024L;
+
+    private final Map<String, String> hashes;
+
+    private JarFingerprints(final Map<String, String> hashes) {
+        this.hashes = Collections.unmodifiableMap(hashes);
+    }
+
+    /**
+     * Fingerprints the file of every installed module, reusing the cached
+     * hashes of files that did not change.
+     *
+     * @param modules   modules to fingerprint; missing modules and modules not
+     *                  loaded from a regular file, such as development folders, are skipped
+     * @param cacheFile location of the hash cache
+     * @return the fingerprints by mod id
+     */
+    public static JarFingerprints compute(final Collection<HellasModule> modules, final Path cacheFile) {
+        final Map<String, Path> files = new LinkedHashMap<>();
+        for (HellasModule module : modules) {
+            module.getFilePath().filter(Files::isRegularFile)
+                    .ifPresent(path -> files.put(module.getModId(), path.toAbsolutePath()));
+        }
+        return compute(files, cacheFile);
+    }
+
+    /**
+     * Fingerprints the given files, reusing the cached hashes of files that
+     * did not change.
+     *
+     * @param files     absolute paths of regular files by mod id
+     * @param cacheFile location of the hash cache
+     * @return the fingerprints by mod id
+     */
+    static JarFingerprints compute(final Map<String, Path> files, final Path cacheFile) {
+        final long start = System.nanoTime();
+        final Map<String, Entry> cached = readCache(cacheFile);
+        final Map<String, Entry> current = new ConcurrentHashMap<>();
+        final List<Path> distinct = files.values().stream().distinct().collect(Collectors.toList());
+        final int parallelism = Math.max(1, Math.min(distinct.size(), Runtime.getRuntime().availableProcessors()));
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, JarFingerprints::newWorker, null, false);
+        try {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(distinct.size());
+            for (Path path : distinct) {
+                tasks.add(pool.submit(() -> {
+                    try {
+                        current.put(path.toString(), fingerprint(path, cached.get(path.toString())));
+                    } catch (IOException | UncheckedIOException ex) {
+                        LOGGER.warn("Unable to fingerprint {}.", path, ex);
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int hashed = 0;
+        for (Entry entry : current.values()) {
+            if (entry != cached.get(entry.path)) {
+                hashed++;
+            }
+        }
+        if (hashed > 0 || !cached.keySet().equals(current.keySet())) {
+            writeCache(cacheFile, current.values());
+        }
+
+        final Map<String, String> hashes = new LinkedHashMap<>();
+        for (Map.Entry<String, Path> file : files.entrySet()) {
+            final Entry entry = current.get(file.getValue().toString());
+            if (entry != null) {
+                hashes.put(file.getKey(), entry.hash);
+            }
+        }
+        LOGGER.info("Fingerprinted {} Hellas module files in {} ms ({} hashed, {} cached).", current.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), hashed, current.size() - hashed);
+        return new JarFingerprints(hashes);
+    }
+
+    /**
+     * Creates a named worker for the hashing pool.
+     *
+     * @param pool pool that owns the worker
+     * @return the new worker thread
+     */
+    private static ForkJoinWorkerThread newWorker(final ForkJoinPool pool) {
+        final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("HellasHelper-Fingerprint-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    /**
+     * Returns the cached entry when the file still has the same size and
+     * modification time, otherwise hashes the file.
+     *
+     * @param path   absolute path of the file
+     * @param cached cached entry for the path, or {@code null}
+     * @return the entry describing the file as it is now
+     * @throws IOException when the file cannot be read
+     */
+    private static Entry fingerprint(final Path path, final Entry cached) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached;
+        }
+        return new Entry(path.toString(), size, modified, hash(path, size));
+    }
+
+    /**
+     * Hashes a file through memory-mapped windows of at most
+     * {@value #MAP_WINDOW} bytes.
+     *
+     * @param path file to hash
+     * @param size size of the file
+     * @return hex SHA-256 of the content
+     * @throws IOException when the file cannot be read
+     */
+    private static String hash(final Path path, final long size) throws IOException {
+        final MessageDigest digest = Hashes.sha256();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (long position = 0L; position < size; position += MAP_WINDOW) {
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_WINDOW, size - position));
+                digest.update(window);
+            }
+        }
+
+        final byte[] bytes = digest.digest();
+        return Hashes.hex(bytes, bytes.length * 2);
+    }
+
+    /**
+     * @param cacheFile location of the hash cache
+     * @return cached entries with well-formed hashes by absolute path, empty when the cache is
+     *         missing or unreadable
+     */
+    private static Map<String, Entry> readCache(final Path cacheFile) {
+        if (!Files.exists(cacheFile)) {
+            return Collections.emptyMap();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+                return Collections.emptyMap();
+            }
+
+            final int count = in.readInt();
+            final Map<String, Entry> entries = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                final Entry entry = new Entry(in.readUTF(), in.readLong(), in.readLong(), in.readUTF());
+                if (Hashes.isHex(entry.hash, HASH_LENGTH)) {
+                    entries.put(entry.path, entry);
+                }
+            }
+            return entries;
+        } catch (IOException ex) {
+            LOGGER.warn("Ignoring unreadable fingerprint cache {}.", cacheFile, ex);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Replaces the hash cache through a temporary file, so an interrupted
+     * write never leaves a truncated cache behind.
+     *
+     * @param cacheFile location of the hash cache
+     * @param entries   entries to store
+     */
+    private static void writeCache(final Path cacheFile, final Collection<Entry> entries) {
+        final Path temporary = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeUTF(entry.path);
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.modified);
+                    out.writeUTF(entry.hash);
+                }
+            }
+            try {
+                Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to write the fingerprint cache {}.", cacheFile, ex);
+        }
+    }
+
+    /**
+     * @param modId id of the module
+     * @return hex SHA-256 of the module's file, if it is installed and could be read
+     */
+    public Optional<String> get(final String modId) {
+        return Optional.ofNullable(hashes.get(modId));
+    }
+
+    /**
+     * @param modId id of the module
+     * @return the first {@value #SHORT_LENGTH} hex characters of the module's fingerprint, if known
+     */
+    public Optional<String> getShort(final String modId) {
+        return get(modId).map(hash -> hash.substring(0, SHORT_LENGTH));
+    }
+
+    /**
+     * One cached file fingerprint.
+     */
+    private static final class Entry {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String hash;
+
+        private Entry(final String path, final long size, final long modified, final String hash) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+}
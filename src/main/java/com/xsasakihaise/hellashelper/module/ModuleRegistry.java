@@ -0,0 +1,183 @@
+package com.xsasakihaise.hellashelper.module;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataIndex;
+import com.xsasakihaise.hellashelper.metadata.ModLookup;
+import net.minecraftforge.fml.ModContainer;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
+import net.minecraftforge.fml.loading.moddiscovery.ModInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Id-indexed registry of every Hellas module the helper exposes.
+ * <p>
+ * {@link #discover(ModList, String, Collection)} scans Forge's mod list once
+ * and picks up every mod that bundles {@code config/<modid>.json} (or its
+ * binary index) or whose id starts with the configured prefix, so new Hellas
+ * modules appear without a helper release. Each module's file and container
+ * are resolved during that scan, which makes the registry a {@link ModLookup}
+ * that answers from a plain map.
+ * </p>
+ */
+public final class ModuleRegistry implements ModLookup {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Ids of the suite modules the rollcall reports even when they are not installed.
+     */
+    public static final List<String> SUITE_MODULE_IDS = Collections.unmodifiableList(Arrays.asList(
+            "hellasaudio", "hellasbattlebuddy", "hellascontrol", "hellasdeck", "hellaselo", "hellasforms",
+            "hellasgardens", "hellashelper", "hellaslibrary", "hellasmineralogy", "hellaspatcher",
+            "hellastextures", "hellaswilds"));
+
+    private final Map<String, HellasModule> modules;
+    private final List<String> modIds;
+
+    /**
+     * @param modules modules to expose, in the order they are listed
+     */
+    public ModuleRegistry(final Collection<HellasModule> modules) {
+        final Map<String, HellasModule> byId = new LinkedHashMap<>();
+        for (HellasModule module : modules) {
+            byId.put(module.getModId(), module);
+        }
+        this.modules = Collections.unmodifiableMap(byId);
+        this.modIds = Collections.unmodifiableList(new ArrayList<>(byId.keySet()));
+    }
+
+    /**
+     * Scans the mod list for Hellas modules.
+     *
+     * @param modList  Forge's mod list
+     * @param idPrefix mods whose id starts with this prefix are always included; empty to disable
+     * @param expected ids that are reported as missing when they are not installed
+     * @return registry holding the installed and expected modules, ordered by id
+     */
+    public static ModuleRegistry discover(final ModList modList, final String idPrefix,
+                                          final Collection<? extends String> expected) {
+        final Map<String, HellasModule> found = new TreeMap<>();
+        for (ModInfo info : modList.getMods()) {
+            final String modId = info.getModId();
+            final ModFileInfo file = info.getOwningFile();
+            if (file == null || !(matchesPrefix(modId, idPrefix) || bundlesMetadata(file, modId))) {
+                continue;
+            }
+
+            final ModContainer container = modList.getModContainerById(modId).orElse(null);
+            found.put(modId, HellasModule.installed(modId, info.getDisplayName(), file, container));
+        }
+
+        final int installed = found.size();
+        for (String modId : expected) {
+            found.putIfAbsent(modId, HellasModule.missing(modId));
+        }
+
+        LOGGER.info("Discovered {} installed Hellas modules, {} expected modules are missing.",
+                installed, found.size() - installed);
+        return new ModuleRegistry(found.values());
+    }
+
+    /**
+     * Builds a registry of modules that are all reported as missing, for use
+     * where Forge's mod list is not available.
+     *
+     * @param modIds ids of the modules
+     * @return registry holding one missing module per id
+     */
+    public static ModuleRegistry offline(final Collection<String> modIds) {
+        final List<HellasModule> modules = new ArrayList<>(modIds.size());
+        for (String modId : modIds) {
+            modules.add(HellasModule.missing(modId));
+        }
+        return new ModuleRegistry(modules);
+    }
+
+    /**
+     * @param modId    id of the mod
+     * @param idPrefix configured prefix, may be empty
+     * @return {@code true} if the id starts with a non-empty prefix
+     */
+    private static boolean matchesPrefix(final String modId, final String idPrefix) {
+        return !idPrefix.isEmpty() && modId.startsWith(idPrefix);
+    }
+
+    /**
+     * @param file  file that provides the mod
+     * @param modId id of the mod
+     * @return {@code true} if the file ships helper metadata for the mod
+     */
+    private static boolean bundlesMetadata(final ModFileInfo file, final String modId) {
+        return exists(file.getFile().findResource("config/" + modId + ".json"))
+                || exists(file.getFile().findResource("config/" + modId + MetadataIndex.EXTENSION));
+    }
+
+    /**
+     * @param path path to check, may be {@code null}
+     * @return {@code true} if the path exists
+     */
+    private static boolean exists(final Path path) {
+        return path != null && Files.exists(path);
+    }
+
+    /**
+     * @param modId id of the mod
+     * @return the module, or empty if it is neither installed nor expected
+     */
+    public Optional<HellasModule> get(final String modId) {
+        return Optional.ofNullable(modules.get(modId));
+    }
+
+    /**
+     * @param modId id of the mod
+     * @return the module's display name, or its id if it is unknown
+     */
+    public String displayName(final String modId) {
+        final HellasModule module = modules.get(modId);
+        return module != null ? module.getDisplayName() : modId;
+    }
+
+    /**
+     * @return every module, in registry order
+     */
+    public Collection<HellasModule> modules() {
+        return modules.values();
+    }
+
+    /**
+     * @return the ids of every module, in registry order
+     */
+    public List<String> modIds() {
+        return modIds;
+    }
+
+    @Override
+    public boolean isLoaded(final String modId) {
+        final HellasModule module = modules.get(modId);
+        return module != null && module.isInstalled();
+    }
+
+    @Override
+    public Optional<Path> findResource(final String modId, final String resource) {
+        final HellasModule module = modules.get(modId);
+        return module != null ? module.findResource(resource) : Optional.empty();
+    }
+
+    @Override
+    public Optional<String> installedVersion(final String modId) {
+        final HellasModule module = modules.get(modId);
+        return module != null ? module.getInstalledVersion() : Optional.empty();
+    }
+}
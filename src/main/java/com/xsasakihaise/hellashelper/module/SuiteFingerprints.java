@@ -0,0 +1,32 @@
+package com.xsasakihaise.hellashelper.module;
+
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Holds the {@link JarFingerprints} computed for the installed modules at
+ * server start, which the rollcalls and node snapshots report.
+ */
+public final class SuiteFingerprints {
+    private static volatile JarFingerprints current;
+
+    private SuiteFingerprints() {
+    }
+
+    /**
+     * Fingerprints the module files and makes the result current.
+     *
+     * @param modules   modules to fingerprint
+     * @param cacheFile location of the hash cache
+     */
+    public static void compute(final Collection<HellasModule> modules, final Path cacheFile) {
+        current = JarFingerprints.compute(modules, cacheFile);
+    }
+
+    /**
+     * @return the fingerprints of the installed modules, or {@code null} before they were computed
+     */
+    public static JarFingerprints get() {
+        return current;
+    }
+}
@@ -0,0 +1,305 @@
+package com.xsasakihaise.hellashelper.profiler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sampling profiler that attributes server thread time to Hellas modules.
+ * <p>
+ * A daemon thread captures the server thread's stack at a fixed interval and
+ * charges each sample to the module owning the innermost frame whose class
+ * lives in that module's package, which covers event-bus listeners and tick
+ * handlers alike without wrapping other mods' code. Samples land in a ring of
+ * one-second buckets covering the last {@value #WINDOW_SECONDS} seconds, so
+ * reports always describe recent behavior and old data expires without any
+ * cleanup pass.
+ * </p>
+ * <p>
+ * Only the sampler thread writes to the buckets; the server thread merely
+ * bumps a tick counter, and readers tolerate a bucket being recycled while
+ * they sum it, so the figures are estimates with a resolution of one sampling
+ * interval.
+ * </p>
+ * <p>
+ * Capturing another thread's stack brings every JVM thread to a safepoint, so
+ * each sample briefly pauses the whole server. The interval is therefore kept
+ * coarse, 100 ms by default, which still gathers 600 samples per window.
+ * </p>
+ */
+public final class ModuleProfiler implements AutoCloseable {
+    public static final int WINDOW_SECONDS = 60;
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long EMPTY = -1L;
+
+    private final Thread target;
+    private final String[] modIds;
+    private final String[] packages;
+    private final long intervalMillis;
+    private final long origin = System.nanoTime();
+    private final AtomicLong ticks = new AtomicLong();
+    private final ScheduledExecutorService sampler;
+
+    private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray bucketTicks = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray bucketSamples = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray hits;
+    private final AtomicLongArray spikes;
+
+    private final long[] tickHits;
+    private long lastTick;
+
+    private ModuleProfiler(final Thread target, final Map<String, String> packages, final long intervalMillis) {
+        this.target = target;
+        this.modIds = packages.keySet().toArray(new String[0]);
+        this.packages = new String[modIds.length];
+        for (int i = 0; i < modIds.length; i++) {
+            this.packages[i] = packages.get(modIds[i]) + '.';
+        }
+        this.intervalMillis = intervalMillis;
+        this.hits = new AtomicLongArray(WINDOW_SECONDS * modIds.length);
+        this.spikes = new AtomicLongArray(WINDOW_SECONDS * modIds.length);
+        this.tickHits = new long[modIds.length];
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            seconds.set(i, EMPTY);
+        }
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "HellasHelper-Profiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts sampling a thread.
+     *
+     * @param target         thread to sample, normally the server thread
+     * @param packages       package of each module's code, keyed by mod id
+     * @param intervalMillis milliseconds between two samples
+     * @return the running profiler
+     */
+    public static ModuleProfiler start(final Thread target, final Map<String, String> packages,
+                                       final long intervalMillis) {
+        final ModuleProfiler profiler = new ModuleProfiler(Objects.requireNonNull(target), packages, intervalMillis);
+        profiler.sampler.scheduleAtFixedRate(profiler::sampleSafely, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        LOGGER.info("Profiling {} Hellas modules on {} every {} ms.", packages.size(), target.getName(), intervalMillis);
+        return profiler;
+    }
+
+    /**
+     * Counts a finished server tick. Called on the server thread.
+     */
+    public void onTick() {
+        ticks.incrementAndGet();
+    }
+
+    /**
+     * Takes one sample, keeping the schedule alive when sampling fails.
+     */
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Failed to sample {}.", target.getName(), ex);
+        }
+    }
+
+    /**
+     * Captures the target's stack and charges it to the owning module.
+     */
+    private void sample() {
+        final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - origin);
+        final int bucket = (int) (second % WINDOW_SECONDS);
+        if (seconds.get(bucket) != second) {
+            recycle(bucket, second);
+        }
+
+        final long tick = ticks.get();
+        if (tick != lastTick) {
+            bucketTicks.addAndGet(bucket, tick - lastTick);
+            flushTick(bucket);
+            lastTick = tick;
+        }
+
+        bucketSamples.incrementAndGet(bucket);
+        final int module = owner(target.getStackTrace());
+        if (module >= 0) {
+            hits.incrementAndGet(bucket * modIds.length + module);
+            tickHits[module]++;
+        }
+    }
+
+    /**
+     * Clears a bucket for reuse. The bucket is marked empty first so that
+     * readers skip it while its counters are reset.
+     *
+     * @param bucket bucket to clear
+     * @param second second the bucket holds from now on
+     */
+    private void recycle(final int bucket, final long second) {
+        seconds.set(bucket, EMPTY);
+        bucketTicks.set(bucket, 0L);
+        bucketSamples.set(bucket, 0L);
+        for (int module = 0; module < modIds.length; module++) {
+            hits.set(bucket * modIds.length + module, 0L);
+            spikes.set(bucket * modIds.length + module, 0L);
+        }
+        seconds.set(bucket, second);
+    }
+
+    /**
+     * Records the samples taken during the tick that just ended as a spike
+     * candidate of each module.
+     *
+     * @param bucket bucket of the current second
+     */
+    private void flushTick(final int bucket) {
+        for (int module = 0; module < modIds.length; module++) {
+            if (tickHits[module] > 0L) {
+                spikes.accumulateAndGet(bucket * modIds.length + module, tickHits[module], Math::max);
+                tickHits[module] = 0L;
+            }
+        }
+    }
+
+    /**
+     * @param stack captured stack, innermost frame first
+     * @return index of the module owning the innermost Hellas frame, or {@code -1}
+     */
+    private int owner(final StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            final String className = frame.getClassName();
+            for (int module = 0; module < packages.length; module++) {
+                if (className.startsWith(packages[module])) {
+                    return module;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sums the window for one module.
+     *
+     * @param modId id of the module
+     * @return the module's report, or {@code null} if the module is not profiled
+     */
+    public Report report(final String modId) {
+        int module = -1;
+        for (int i = 0; i < modIds.length; i++) {
+            if (modIds[i].equals(modId)) {
+                module = i;
+            }
+        }
+        if (module < 0) {
+            return null;
+        }
+
+        final long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - origin);
+        long covered = 0L;
+        long tickCount = 0L;
+        long samples = 0L;
+        long moduleHits = 0L;
+        long spike = 0L;
+        for (int bucket = 0; bucket < WINDOW_SECONDS; bucket++) {
+            final long second = seconds.get(bucket);
+            if (second == EMPTY || now - second >= WINDOW_SECONDS) {
+                continue;
+            }
+
+            covered++;
+            tickCount += bucketTicks.get(bucket);
+            samples += bucketSamples.get(bucket);
+            moduleHits += hits.get(bucket * modIds.length + module);
+            spike = Math.max(spike, spikes.get(bucket * modIds.length + module));
+        }
+        return new Report(covered, tickCount, samples, moduleHits, spike * intervalMillis, intervalMillis);
+    }
+
+    /**
+     * @return milliseconds between two samples
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Stops sampling.
+     */
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    /**
+     * Server thread time attributed to one module over the rolling window.
+     */
+    public static final class Report {
+        private final long seconds;
+        private final long ticks;
+        private final long samples;
+        private final long hits;
+        private final long worstTickMillis;
+        private final long intervalMillis;
+
+        private Report(final long seconds, final long ticks, final long samples, final long hits,
+                       final long worstTickMillis, final long intervalMillis) {
+            this.seconds = seconds;
+            this.ticks = ticks;
+            this.samples = samples;
+            this.hits = hits;
+            this.worstTickMillis = worstTickMillis;
+            this.intervalMillis = intervalMillis;
+        }
+
+        /**
+         * @return seconds of sampling the report covers, at most {@value ModuleProfiler#WINDOW_SECONDS}
+         */
+        public long getSeconds() {
+            return seconds;
+        }
+
+        /**
+         * @return server ticks completed within the window
+         */
+        public long getTicks() {
+            return ticks;
+        }
+
+        /**
+         * @return estimated milliseconds the module spends per server tick
+         */
+        public double getMillisPerTick() {
+            return ticks == 0L ? 0.0D : (double) (hits * intervalMillis) / ticks;
+        }
+
+        /**
+         * @return samples per second that caught the server thread in the module's code
+         */
+        public double getHitsPerSecond() {
+            return seconds == 0L ? 0.0D : (double) hits / seconds;
+        }
+
+        /**
+         * @return fraction of all samples that caught the server thread in the module's code
+         */
+        public double getShare() {
+            return samples == 0L ? 0.0D : (double) hits / samples;
+        }
+
+        /**
+         * @return estimated milliseconds of the module's worst single tick in the window
+         */
+        public long getWorstTickMillis() {
+            return worstTickMillis;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.xsasakihaise.hellashelper.profiler;
+
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.module.HellasModule;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+import net.minecraftforge.fml.ModContainer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the {@link ModuleProfiler} of the running server, if profiling is
+ * enabled in the config.
+ */
+public final class SuiteProfiler {
+    private static volatile ModuleProfiler profiler;
+
+    private SuiteProfiler() {
+    }
+
+    /**
+     * Starts sampling the server thread, if enabled in the config.
+     *
+     * @param serverThread the thread running the server ticks
+     * @param registry     modules whose packages the samples are charged to
+     */
+    public static synchronized void start(final Thread serverThread, final ModuleRegistry registry) {
+        if (profiler != null || !HellasHelperConfig.PROFILER_ENABLED.get()) {
+            return;
+        }
+
+        final Map<String, String> packages = new LinkedHashMap<>();
+        for (HellasModule module : registry.modules()) {
+            module.getContainer().map(ModContainer::getMod)
+                    .ifPresent(mod -> packages.put(module.getModId(), packageOf(mod.getClass())));
+        }
+        profiler = ModuleProfiler.start(serverThread, packages, HellasHelperConfig.PROFILER_INTERVAL_MS.get());
+    }
+
+    /**
+     * @param type main class of a mod
+     * @return the package holding the class
+     */
+    private static String packageOf(final Class<?> type) {
+        final String name = type.getName();
+        return name.substring(0, Math.max(0, name.lastIndexOf('.')));
+    }
+
+    /**
+     * Counts a finished server tick, if the profiler is running.
+     */
+    public static void onTick() {
+        final ModuleProfiler current = profiler;
+        if (current != null) {
+            current.onTick();
+        }
+    }
+
+    /**
+     * @return the running profiler, or {@code null} if profiling is disabled
+     */
+    public static ModuleProfiler get() {
+        return profiler;
+    }
+
+    /**
+     * Stops the profiler started by {@link #start(Thread, ModuleRegistry)}.
+     */
+    public static synchronized void stop() {
+        if (profiler != null) {
+            profiler.close();
+            profiler = null;
+        }
+    }
+}
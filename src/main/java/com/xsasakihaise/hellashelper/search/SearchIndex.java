@@ -0,0 +1,257 @@
+package com.xsasakihaise.hellashelper.search;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable inverted index over the features and dependencies of every mod in
+ * a {@link MetadataSnapshot}.
+ * <p>
+ * Every feature and dependency line is one document. Terms are lower-cased
+ * runs of letters and digits, and each term maps to the sorted ids of the
+ * documents containing it. A query is answered from those posting lists
+ * alone: each document is scored by the inverse document frequency of the
+ * query terms it contains, dependency lines count half, and indexed terms
+ * that merely start with a query term (such as {@code gardens} for
+ * {@code garden}) match at a reduced weight.
+ * </p>
+ * <p>
+ * The indexed terms, and only those, also feed a {@link SuggestionTrie} for
+ * tab completion, so every suggestion matches at least one line and both are
+ * rebuilt together whenever the snapshot changes.
+ * </p>
+ */
+public final class SearchIndex {
+    private static final double DEPENDENCY_WEIGHT = 0.5D;
+    private static final double PREFIX_WEIGHT = 0.5D;
+
+    private final MetadataSnapshot source;
+    private final String[] docMods;
+    private final String[] docTexts;
+    private final boolean[] docDependencies;
+    private final Map<String, int[]> postings;
+    private final String[] terms;
+    private final SuggestionTrie keywords;
+
+    private SearchIndex(final MetadataSnapshot source, final List<String> mods, final List<String> texts,
+                        final List<Boolean> dependencies, final Map<String, int[]> postings) {
+        this.source = source;
+        this.docMods = mods.toArray(new String[0]);
+        this.docTexts = texts.toArray(new String[0]);
+        this.docDependencies = new boolean[dependencies.size()];
+        for (int i = 0; i < docDependencies.length; i++) {
+            docDependencies[i] = dependencies.get(i);
+        }
+        this.postings = postings;
+        this.terms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        this.keywords = SuggestionTrie.build(Arrays.asList(terms));
+    }
+
+    /**
+     * Indexes every installed mod in the snapshot.
+     *
+     * @param snapshot snapshot to index
+     * @return the index
+     */
+    public static SearchIndex build(final MetadataSnapshot snapshot) {
+        final List<String> mods = new ArrayList<>();
+        final List<String> texts = new ArrayList<>();
+        final List<Boolean> dependencies = new ArrayList<>();
+        final Map<String, List<Integer>> builder = new HashMap<>();
+
+        for (Map.Entry<String, ModMetadata> entry : snapshot.getEntries().entrySet()) {
+            final ModMetadata metadata = entry.getValue();
+            if (!metadata.isInstalled()) {
+                continue;
+            }
+
+            for (String feature : metadata.getFeatures()) {
+                addDocument(entry.getKey(), feature, false, mods, texts, dependencies, builder);
+            }
+            for (String dependency : metadata.getDependencies()) {
+                addDocument(entry.getKey(), dependency, true, mods, texts, dependencies, builder);
+            }
+        }
+
+        final Map<String, int[]> postings = new HashMap<>(builder.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : builder.entrySet()) {
+            final List<Integer> ids = entry.getValue();
+            final int[] array = new int[ids.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ids.get(i);
+            }
+            postings.put(entry.getKey(), array);
+        }
+        return new SearchIndex(snapshot, mods, texts, dependencies, postings);
+    }
+
+    /**
+     * Adds one line as a document, recording each of its distinct terms once.
+     *
+     * @param modId        id of the mod declaring the line
+     * @param text         feature or dependency line
+     * @param dependency   {@code true} for dependency lines
+     * @param mods         receives the mod id of the document
+     * @param texts        receives the text of the document
+     * @param dependencies receives the dependency flag of the document
+     * @param postings     posting lists under construction
+     */
+    private static void addDocument(final String modId, final String text, final boolean dependency,
+                                    final List<String> mods, final List<String> texts,
+                                    final List<Boolean> dependencies, final Map<String, List<Integer>> postings) {
+        final int doc = texts.size();
+        mods.add(modId);
+        texts.add(text);
+        dependencies.add(dependency);
+        for (String term : tokenize(text)) {
+            postings.computeIfAbsent(term, key -> new ArrayList<>()).add(doc);
+        }
+    }
+
+    /**
+     * Splits text into distinct lower-case terms.
+     *
+     * @param text text to split
+     * @return the distinct terms, in order of first occurrence
+     */
+    static Set<String> tokenize(final String text) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        final String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            final boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Ranks the indexed lines against a free-text query.
+     *
+     * @param query free-text query
+     * @param limit maximum number of hits to return
+     * @return the best hits, highest score first
+     */
+    public List<Hit> search(final String query, final int limit) {
+        final Set<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || docTexts.length == 0) {
+            return Collections.emptyList();
+        }
+
+        final double[] scores = new double[docTexts.length];
+        for (String term : queryTerms) {
+            final int found = Arrays.binarySearch(terms, term);
+            for (int i = found >= 0 ? found : -found - 1; i < terms.length && terms[i].startsWith(term); i++) {
+                score(postings.get(terms[i]), i == found ? 1.0D : PREFIX_WEIGHT, scores);
+            }
+        }
+
+        final List<Hit> hits = new ArrayList<>();
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] > 0.0D) {
+                final double weight = docDependencies[doc] ? DEPENDENCY_WEIGHT : 1.0D;
+                hits.add(new Hit(docMods[doc], docTexts[doc], docDependencies[doc], scores[doc] * weight));
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::getScore).reversed());
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Adds the inverse document frequency of a term to every document in its posting list.
+     *
+     * @param posting documents containing the term
+     * @param weight  weight of the match
+     * @param scores  per-document scores to update
+     */
+    private void score(final int[] posting, final double weight, final double[] scores) {
+        final double idf = 1.0D + Math.log((double) docTexts.length / posting.length);
+        for (int doc : posting) {
+            scores[doc] += weight * idf;
+        }
+    }
+
+    /**
+     * @return the snapshot this index was built from
+     */
+    public MetadataSnapshot getSource() {
+        return source;
+    }
+
+    /**
+     * @return completions for search terms
+     */
+    public SuggestionTrie getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * @return number of indexed lines
+     */
+    public int size() {
+        return docTexts.length;
+    }
+
+    /**
+     * A line matching a query.
+     */
+    public static final class Hit {
+        private final String modId;
+        private final String text;
+        private final boolean dependency;
+        private final double score;
+
+        private Hit(final String modId, final String text, final boolean dependency, final double score) {
+            this.modId = modId;
+            this.text = text;
+            this.dependency = dependency;
+            this.score = score;
+        }
+
+        /**
+         * @return id of the mod declaring the line
+         */
+        public String getModId() {
+            return modId;
+        }
+
+        /**
+         * @return the matching feature or dependency line
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return {@code true} if the line is a dependency rather than a feature
+         */
+        public boolean isDependency() {
+            return dependency;
+        }
+
+        /**
+         * @return relevance score, higher is better
+         */
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.xsasakihaise.hellashelper.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Immutable prefix trie used to answer tab-completion requests.
+ * <p>
+ * The words are kept in one sorted array and the trie is flattened into
+ * parallel arrays: every node stores its edge character, its first child, its
+ * next sibling and the range of words that share its prefix. Resolving a
+ * prefix only walks those arrays, and the completions are the contiguous
+ * range of words below the resulting node, so a lookup allocates nothing
+ * besides what the caller does with the completions.
+ * </p>
+ */
+public final class SuggestionTrie {
+    private static final int ROOT = 0;
+
+    private final String[] words;
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] from;
+    private final int[] to;
+
+    private SuggestionTrie(final String[] words) {
+        this.words = words;
+        final Builder builder = new Builder(words);
+        builder.add('\0', 0, words.length, 0);
+        builder.expandAll();
+        this.labels = Arrays.copyOf(builder.labels, builder.nodes);
+        this.firstChild = Arrays.copyOf(builder.firstChild, builder.nodes);
+        this.nextSibling = Arrays.copyOf(builder.nextSibling, builder.nodes);
+        this.from = Arrays.copyOf(builder.from, builder.nodes);
+        this.to = Arrays.copyOf(builder.to, builder.nodes);
+    }
+
+    /**
+     * Builds a trie over the distinct lower-case forms of the given words.
+     *
+     * @param words words that can be suggested
+     * @return the trie
+     */
+    public static SuggestionTrie build(final Collection<String> words) {
+        final TreeSet<String> sorted = new TreeSet<>();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                sorted.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        return new SuggestionTrie(sorted.toArray(new String[0]));
+    }
+
+    /**
+     * Resolves the node for the characters of {@code input} starting at {@code offset}, ignoring case.
+     *
+     * @param input  text containing the prefix
+     * @param offset index of the first prefix character
+     * @return the node index, or {@code -1} if no word has the prefix
+     */
+    private int find(final CharSequence input, final int offset) {
+        int node = ROOT;
+        for (int i = offset; i < input.length(); i++) {
+            final char c = Character.toLowerCase(input.charAt(i));
+            int child = firstChild[node];
+            while (child >= 0 && labels[child] != c) {
+                child = nextSibling[child];
+            }
+            if (child < 0) {
+                return -1;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Passes the words that start with the given prefix to the consumer, in
+     * alphabetical order.
+     *
+     * @param input    text containing the prefix
+     * @param offset   index of the first prefix character
+     * @param limit    maximum number of words to pass
+     * @param consumer receives the completions
+     * @return number of words passed to the consumer
+     */
+    public int complete(final CharSequence input, final int offset, final int limit, final Consumer<String> consumer) {
+        final int node = find(input, offset);
+        if (node < 0) {
+            return 0;
+        }
+
+        final int end = Math.min(to[node], from[node] + limit);
+        for (int i = from[node]; i < end; i++) {
+            consumer.accept(words[i]);
+        }
+        return end - from[node];
+    }
+
+    /**
+     * @return number of distinct words in the trie
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Growable node arrays used while the trie is built.
+     * <p>
+     * Nodes are expanded in the order they were created, so the node arrays
+     * double as the work queue and building needs no recursion, however long
+     * the words are.
+     * </p>
+     */
+    private static final class Builder {
+        private final String[] words;
+        private char[] labels;
+        private int[] firstChild;
+        private int[] nextSibling;
+        private int[] from;
+        private int[] to;
+        private int[] depths;
+        private int nodes;
+
+        private Builder(final String[] words) {
+            this.words = words;
+            final int capacity = Math.max(1, words.length * 4);
+            this.labels = new char[capacity];
+            this.firstChild = new int[capacity];
+            this.nextSibling = new int[capacity];
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.depths = new int[capacity];
+        }
+
+        /**
+         * Expands every node, including the ones created while expanding.
+         */
+        private void expandAll() {
+            for (int node = 0; node < nodes; node++) {
+                expand(node);
+            }
+        }
+
+        /**
+         * Creates the children of a node; its words share their first
+         * {@code depths[node]} characters.
+         *
+         * @param node node to expand
+         */
+        private void expand(final int node) {
+            final int depth = depths[node];
+            int start = from[node];
+            final int end = to[node];
+            while (start < end && words[start].length() == depth) {
+                start++;
+            }
+
+            int previous = -1;
+            while (start < end) {
+                final char label = words[start].charAt(depth);
+                int stop = start + 1;
+                while (stop < end && words[stop].charAt(depth) == label) {
+                    stop++;
+                }
+
+                final int child = add(label, start, stop, depth + 1);
+                if (previous < 0) {
+                    firstChild[node] = child;
+                } else {
+                    nextSibling[previous] = child;
+                }
+                previous = child;
+                start = stop;
+            }
+        }
+
+        /**
+         * Appends a node, growing the arrays when needed.
+         *
+         * @param label edge character leading to the node
+         * @param start first word below the node
+         * @param end   end of the range of words below the node, exclusive
+         * @param depth length of the node's prefix
+         * @return index of the new node
+         */
+        private int add(final char label, final int start, final int end, final int depth) {
+            if (nodes == labels.length) {
+                final int capacity = nodes * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+            }
+
+            labels[nodes] = label;
+            firstChild[nodes] = -1;
+            nextSibling[nodes] = -1;
+            from[nodes] = start;
+            to[nodes] = end;
+            depths[nodes] = depth;
+            return nodes++;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.xsasakihaise.hellashelper.search;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+
+/**
+ * Holds the {@link SearchIndex} of the current metadata snapshot.
+ * <p>
+ * The index is rebuilt in the background whenever a snapshot is published,
+ * so {@code /hellas search} and its tab completion normally only look it up.
+ * A lookup for a snapshot the index was not built from yet rebuilds it on
+ * the calling thread instead of answering from stale data.
+ * </p>
+ */
+public final class SuiteSearch {
+    private static volatile SearchIndex index;
+
+    private SuiteSearch() {
+    }
+
+    /**
+     * Returns the search index for a snapshot, rebuilding it when the
+     * snapshot changed.
+     *
+     * @param snapshot snapshot to search
+     * @return the index built from that snapshot
+     */
+    public static SearchIndex index(final MetadataSnapshot snapshot) {
+        final SearchIndex current = index;
+        if (current != null && current.getSource() == snapshot) {
+            return current;
+        }
+
+        final SearchIndex rebuilt = SearchIndex.build(snapshot);
+        index = rebuilt;
+        return rebuilt;
+    }
+}
@@ -0,0 +1,196 @@
+package com.xsasakihaise.hellashelper.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide instrumentation for the helper's command and metadata paths.
+ * <p>
+ * Command latencies are tracked per mod and subcommand in lock-free
+ * {@link LatencyHistogram}s, alongside metadata load times, parse failures
+ * and cache hit/miss counters. The numbers are shown by
+ * {@code /hellas helper stats}, and the same command and load spans are
+ * emitted as JFR events ({@code hellashelper.Command} and
+ * {@code hellashelper.MetadataLoad}) when the JVM supports JFR.
+ * </p>
+ */
+public final class HelperMetrics {
+    private static final String JFR_EVENTS = "com.xsasakihaise.hellashelper.stats.JfrEvents";
+    private static final JfrBridge JFR = loadJfr();
+
+    private static final ConcurrentMap<String, LatencyHistogram> COMMANDS = new ConcurrentHashMap<>();
+    private static final LatencyHistogram METADATA_LOADS = new LatencyHistogram();
+    private static final LongAdder PARSE_FAILURES = new LongAdder();
+    private static final LongAdder SNAPSHOT_WARM = new LongAdder();
+    private static final LongAdder SNAPSHOT_COLD = new LongAdder();
+    private static final LongAdder RESPONSE_HITS = new LongAdder();
+    private static final LongAdder RESPONSE_MISSES = new LongAdder();
+    private static final LongAdder THROTTLED = new LongAdder();
+    private static final LongAdder COALESCED = new LongAdder();
+
+    private static volatile long lastPreloadNanos = -1L;
+    private static volatile int lastPreloadMods;
+
+    private HelperMetrics() {
+    }
+
+    /**
+     * Runs a command handler and records its latency.
+     *
+     * @param modId      id of the queried mod
+     * @param subcommand executed subcommand
+     * @param handler    handler to run on the current thread
+     * @return the handler's result
+     */
+    public static int timeCommand(final String modId, final String subcommand, final IntSupplier handler) {
+        final Object event = JFR != null ? JFR.beginCommand() : null;
+        final long start = System.nanoTime();
+        try {
+            return handler.getAsInt();
+        } finally {
+            COMMANDS.computeIfAbsent(modId + ' ' + subcommand, key -> new LatencyHistogram())
+                    .record(System.nanoTime() - start);
+            if (event != null) {
+                JFR.commitCommand(event, modId, subcommand);
+            }
+        }
+    }
+
+    /**
+     * Runs the metadata load of a single mod and records its duration.
+     *
+     * @param modId  id of the loaded mod
+     * @param load   performs the load
+     * @param status describes the outcome of the load for JFR
+     * @param <T>    type of the load result
+     * @return the load result
+     */
+    public static <T> T timeMetadataLoad(final String modId, final Supplier<T> load, final Function<T, String> status) {
+        final Object event = JFR != null ? JFR.beginMetadataLoad() : null;
+        final long start = System.nanoTime();
+        final T result = load.get();
+        final long elapsed = System.nanoTime() - start;
+        METADATA_LOADS.record(elapsed);
+        StartupTimeline.recordModuleLoad(modId, elapsed);
+        if (event != null) {
+            JFR.commitMetadataLoad(event, modId, status.apply(result));
+        }
+        return result;
+    }
+
+    /**
+     * @param nanos duration of the last full metadata preload
+     * @param mods  number of mods covered by the preload
+     */
+    public static void recordPreload(final long nanos, final int mods) {
+        lastPreloadMods = mods;
+        lastPreloadNanos = nanos;
+    }
+
+    /**
+     * Counts a metadata file that could not be read or parsed.
+     */
+    public static void recordParseFailure() {
+        PARSE_FAILURES.increment();
+    }
+
+    /**
+     * @param warm {@code true} if a command found a published metadata snapshot
+     */
+    public static void recordSnapshotLookup(final boolean warm) {
+        (warm ? SNAPSHOT_WARM : SNAPSHOT_COLD).increment();
+    }
+
+    /**
+     * @param hit {@code true} if a pre-rendered response could be reused
+     */
+    public static void recordResponseCache(final boolean hit) {
+        (hit ? RESPONSE_HITS : RESPONSE_MISSES).increment();
+    }
+
+    /**
+     * Counts a command refused by the per-player rate limit.
+     */
+    public static void recordThrottled() {
+        THROTTLED.increment();
+    }
+
+    /**
+     * Counts a command answered with a reply computed earlier in the same tick.
+     */
+    public static void recordCoalesced() {
+        COALESCED.increment();
+    }
+
+    /**
+     * @return human-readable report, one entry per line, starting with a header line
+     */
+    public static List<String> render() {
+        final List<String> lines = new ArrayList<>();
+        lines.add("HellasHelper stats:");
+
+        final long preload = lastPreloadNanos;
+        lines.add("Metadata: " + (preload < 0L ? "not preloaded yet"
+                : "last preload " + millis(preload) + " ms for " + lastPreloadMods + " mods")
+                + ", " + PARSE_FAILURES.sum() + " parse failures");
+        if (METADATA_LOADS.count() > 0L) {
+            lines.add("Metadata loads: " + summary(METADATA_LOADS));
+        }
+        lines.add("Snapshot lookups: " + SNAPSHOT_WARM.sum() + " warm / " + SNAPSHOT_COLD.sum() + " cold");
+        lines.add("Response cache: " + RESPONSE_HITS.sum() + " hits / " + RESPONSE_MISSES.sum() + " misses");
+        lines.add("Commands throttled: " + THROTTLED.sum() + ", coalesced within a tick: " + COALESCED.sum());
+
+        final Map<String, LatencyHistogram> commands = new TreeMap<>(COMMANDS);
+        if (commands.isEmpty()) {
+            lines.add("No /hellas commands recorded yet.");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : commands.entrySet()) {
+            lines.add("- " + entry.getKey() + ": " + summary(entry.getValue()));
+        }
+        return lines;
+    }
+
+    /**
+     * @param histogram histogram to summarize
+     * @return call count and latency percentiles of the histogram
+     */
+    private static String summary(final LatencyHistogram histogram) {
+        return histogram.count() + " calls, p50 " + millis(histogram.percentile(0.5))
+                + " ms, p99 " + millis(histogram.percentile(0.99))
+                + " ms, max " + millis(histogram.max()) + " ms";
+    }
+
+    /**
+     * @param nanos duration in nanoseconds
+     * @return the duration in milliseconds with three decimals
+     */
+    private static String millis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0D);
+    }
+
+    /**
+     * Loads the JFR event emitter from the separately compiled {@code jfr}
+     * source set.
+     *
+     * @return the emitter, or {@code null} if the running JVM lacks the
+     * {@code jdk.jfr} API or the emitter is not on the class path
+     */
+    private static JfrBridge loadJfr() {
+        final ClassLoader loader = HelperMetrics.class.getClassLoader();
+        try {
+            Class.forName("jdk.jfr.Event", false, loader);
+            return (JfrBridge) Class.forName(JFR_EVENTS, true, loader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException ex) {
+            return null;
+        }
+    }
+}
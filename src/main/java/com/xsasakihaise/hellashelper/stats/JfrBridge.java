@@ -0,0 +1,37 @@
+package com.xsasakihaise.hellashelper.stats;
+
+/**
+ * Emits the helper's JFR events.
+ * <p>
+ * The implementation, {@code JfrEvents}, lives in the {@code jfr} source set,
+ * which is compiled against a JDK that ships {@code jdk.jfr} and packed into
+ * the same jar. {@link HelperMetrics} only loads it reflectively after
+ * checking that the running JVM provides the JFR API, so the main sources
+ * compile and run on any Java 8 build.
+ * </p>
+ */
+interface JfrBridge {
+    /**
+     * @return a started command event, or {@code null} if the event type is not being recorded
+     */
+    Object beginCommand();
+
+    /**
+     * @param event      event returned by {@link #beginCommand()}
+     * @param modId      id of the queried mod
+     * @param subcommand executed subcommand
+     */
+    void commitCommand(Object event, String modId, String subcommand);
+
+    /**
+     * @return a started metadata load event, or {@code null} if the event type is not being recorded
+     */
+    Object beginMetadataLoad();
+
+    /**
+     * @param event  event returned by {@link #beginMetadataLoad()}
+     * @param modId  id of the loaded mod
+     * @param status resulting metadata status
+     */
+    void commitMetadataLoad(Object event, String modId, String status);
+}
@@ -0,0 +1,107 @@
+package com.xsasakihaise.hellashelper.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, log-linear histogram of durations in nanoseconds.
+ * <p>
+ * Every power of two is split into eight linear sub-buckets, so reported
+ * percentiles are within 12.5% of the recorded values while the whole
+ * {@code long} range fits into a fixed array of counters. Recording is a
+ * handful of atomic increments and never allocates or blocks, which keeps it
+ * cheap enough to run on the server thread for every command.
+ * </p>
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @param nanos duration to record; negative values are treated as zero
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, nanos);
+        counts.incrementAndGet(bucket(value));
+        total.increment();
+        max.accumulate(value);
+    }
+
+    /**
+     * @return number of recorded durations
+     */
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * @return largest recorded duration in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile from the bucket counts.
+     *
+     * @param percentile percentile between {@code 0} and {@code 1}
+     * @return upper bound of the bucket holding the percentile, capped at {@link #max()}
+     */
+    public long percentile(final double percentile) {
+        final long[] snapshot = new long[BUCKETS];
+        long recorded = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            recorded += snapshot[i];
+        }
+
+        if (recorded == 0L) {
+            return 0L;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(percentile * recorded));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * @param value non-negative duration
+     * @return index of the bucket counting the duration
+     */
+    private static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return largest duration counted by the bucket
+     */
+    private static long upperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lower + width - 1 < 0 ? Long.MAX_VALUE : lower + width - 1;
+    }
+}
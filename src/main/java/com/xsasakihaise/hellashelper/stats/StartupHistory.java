@@ -0,0 +1,234 @@
+package com.xsasakihaise.hellashelper.stats;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ring buffer of the startup timings of the last {@value #CAPACITY} boots,
+ * persisted as a small JSON file.
+ * <p>
+ * The file is read once and rewritten once per boot; the new content is
+ * written to a temporary file first and moved over the old one, so a crash
+ * during startup never leaves a truncated history behind.
+ * </p>
+ */
+final class StartupHistory {
+    static final int CAPACITY = 10;
+
+    private StartupHistory() {
+    }
+
+    /**
+     * Reads the recorded boots, oldest first.
+     *
+     * @param file history file
+     * @return the recorded boots, empty if the file does not exist
+     * @throws IOException when the file cannot be read or is malformed, including numbers that do not parse
+     */
+    static List<Boot> read(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+
+        final List<Boot> boots = new ArrayList<>();
+        try (Reader source = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final JsonReader reader = new JsonReader(source);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"boots".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    boots.add(readBoot(reader));
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException ex) {
+            throw new IOException("Malformed startup history " + file, ex);
+        }
+        return boots;
+    }
+
+    /**
+     * Appends a boot to the history, dropping the oldest boots beyond
+     * {@value #CAPACITY}, and writes it back.
+     *
+     * @param file    history file
+     * @param history boots recorded so far, oldest first
+     * @param boot    boot to append
+     * @return the updated history, oldest first
+     * @throws IOException when the file cannot be written
+     */
+    static List<Boot> append(final Path file, final List<Boot> history, final Boot boot) throws IOException {
+        final List<Boot> boots = new ArrayList<>(history);
+        boots.add(boot);
+        while (boots.size() > CAPACITY) {
+            boots.remove(0);
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer target = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            final JsonWriter writer = new JsonWriter(target);
+            writer.setIndent("  ");
+            writer.beginObject().name("boots").beginArray();
+            for (Boot entry : boots) {
+                writeBoot(writer, entry);
+            }
+            writer.endArray().endObject();
+            writer.flush();
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return Collections.unmodifiableList(boots);
+    }
+
+    /**
+     * @param reader reader positioned at a boot object
+     * @return the boot
+     * @throws IOException when the object is malformed
+     */
+    private static Boot readBoot(final JsonReader reader) throws IOException {
+        long time = 0L;
+        Map<String, Double> phases = Collections.emptyMap();
+        Map<String, Double> steps = Collections.emptyMap();
+        Map<String, Double> modules = Collections.emptyMap();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if ("time".equals(name)) {
+                time = reader.nextLong();
+            } else if ("phases".equals(name)) {
+                phases = readTimings(reader);
+            } else if ("steps".equals(name)) {
+                steps = readTimings(reader);
+            } else if ("modules".equals(name)) {
+                modules = readTimings(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Boot(time, phases, steps, modules);
+    }
+
+    /**
+     * @param reader reader positioned at an object of numbers
+     * @return the numbers by name, in file order
+     * @throws IOException when the object is malformed
+     */
+    private static Map<String, Double> readTimings(final JsonReader reader) throws IOException {
+        final Map<String, Double> timings = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.peek() == JsonToken.NUMBER) {
+                timings.put(name, reader.nextDouble());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return timings;
+    }
+
+    /**
+     * @param writer destination
+     * @param boot   boot to write
+     * @throws IOException when writing fails
+     */
+    private static void writeBoot(final JsonWriter writer, final Boot boot) throws IOException {
+        writer.beginObject().name("time").value(boot.getTime());
+        writeTimings(writer.name("phases"), boot.getPhases());
+        writeTimings(writer.name("steps"), boot.getSteps());
+        writeTimings(writer.name("modules"), boot.getModules());
+        writer.endObject();
+    }
+
+    /**
+     * @param writer  destination, positioned after a name
+     * @param timings numbers to write by name
+     * @throws IOException when writing fails
+     */
+    private static void writeTimings(final JsonWriter writer, final Map<String, Double> timings) throws IOException {
+        writer.beginObject();
+        for (Map.Entry<String, Double> entry : timings.entrySet()) {
+            writer.name(entry.getKey()).value(entry.getValue().doubleValue());
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Startup timings of one boot, all in milliseconds.
+     */
+    static final class Boot {
+        private final long time;
+        private final Map<String, Double> phases;
+        private final Map<String, Double> steps;
+        private final Map<String, Double> modules;
+
+        /**
+         * @param time    wall-clock time the boot finished, in epoch milliseconds
+         * @param phases  JVM uptime at which each lifecycle phase was reached
+         * @param steps   duration of each timed helper step
+         * @param modules duration of each module's metadata load
+         */
+        Boot(final long time, final Map<String, Double> phases, final Map<String, Double> steps,
+             final Map<String, Double> modules) {
+            this.time = time;
+            this.phases = Collections.unmodifiableMap(new LinkedHashMap<>(phases));
+            this.steps = Collections.unmodifiableMap(new LinkedHashMap<>(steps));
+            this.modules = Collections.unmodifiableMap(new LinkedHashMap<>(modules));
+        }
+
+        /**
+         * @return wall-clock time the boot finished, in epoch milliseconds
+         */
+        long getTime() {
+            return time;
+        }
+
+        /**
+         * @return JVM uptime at which each lifecycle phase was reached
+         */
+        Map<String, Double> getPhases() {
+            return phases;
+        }
+
+        /**
+         * @return duration of each timed helper step
+         */
+        Map<String, Double> getSteps() {
+            return steps;
+        }
+
+        /**
+         * @return duration of each module's metadata load
+         */
+        Map<String, Double> getModules() {
+            return modules;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.xsasakihaise.hellashelper.stats;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Process-wide record of how long the server took to boot.
+ * <p>
+ * The helper marks the JVM uptime at which each lifecycle phase reached it,
+ * times its own blocking startup steps (the {@code CoreCheck} calls and the
+ * metadata preload) and keeps the metadata load time of every module. Forge
+ * dispatches each phase to all mods before moving on, so the phase marks
+ * bound the time the whole suite spent in the previous phase. Once the server
+ * has started, the boot is appended to a {@link StartupHistory} file so that
+ * {@code /hellas helper startup} can compare it with earlier boots.
+ * </p>
+ */
+public final class StartupTimeline {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final Map<String, Double> PHASES = new LinkedHashMap<>();
+    private static final Map<String, Double> STEPS = new LinkedHashMap<>();
+    private static final Map<String, Double> MODULES = new TreeMap<>();
+    private static final int SLOWEST_MODULES = 5;
+
+    private static List<StartupHistory.Boot> history;
+    private static boolean completed;
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * Lifecycle phases marked during a boot, in the order Forge reaches them.
+     */
+    public enum Phase {
+        CONSTRUCT("construct"),
+        COMMON_SETUP("common setup"),
+        COMMANDS_REGISTERED("commands registered"),
+        SERVER_STARTING("server starting"),
+        SERVER_STARTED("server started");
+
+        private final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Marks the current JVM uptime as the moment a phase was reached. Only
+     * the first mark of each phase per boot is kept.
+     *
+     * @param phase phase that was reached
+     */
+    public static synchronized void mark(final Phase phase) {
+        if (!completed) {
+            PHASES.putIfAbsent(phase.label, (double) ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+
+    /**
+     * Runs a startup step and records how long it took.
+     *
+     * @param step name the step is reported under
+     * @param task the step
+     */
+    public static void time(final String step, final Runnable task) {
+        final long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            record(STEPS, step, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the metadata load time of a module while the server is booting.
+     *
+     * @param modId id of the loaded module
+     * @param nanos duration of the load
+     */
+    static void recordModuleLoad(final String modId, final long nanos) {
+        record(MODULES, modId, nanos);
+    }
+
+    /**
+     * @param timings map to record into
+     * @param name    name of the timing
+     * @param nanos   duration to record, unless the boot is already complete or the name was recorded before
+     */
+    private static synchronized void record(final Map<String, Double> timings, final String name, final long nanos) {
+        if (!completed) {
+            timings.putIfAbsent(name, nanos / 1_000_000.0D);
+        }
+    }
+
+    /**
+     * Closes the current boot and appends it to the history file. Later
+     * calls, for example after a {@code /reload}, are ignored.
+     *
+     * @param file history file
+     */
+    public static synchronized void complete(final Path file) {
+        if (completed) {
+            return;
+        }
+        completed = true;
+
+        List<StartupHistory.Boot> earlier;
+        try {
+            earlier = StartupHistory.read(file);
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to read the startup history {}, starting a new one.", file, ex);
+            earlier = new ArrayList<>();
+        }
+        history = Collections.unmodifiableList(earlier);
+
+        try {
+            StartupHistory.append(file, earlier, current());
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to write the startup history {}.", file, ex);
+        }
+    }
+
+    /**
+     * @return the boot recorded so far
+     */
+    private static StartupHistory.Boot current() {
+        return new StartupHistory.Boot(System.currentTimeMillis(), PHASES, STEPS, MODULES);
+    }
+
+    /**
+     * Compares the current boot with the previous one.
+     *
+     * @return human-readable report, one entry per line, starting with a header line
+     */
+    public static synchronized List<String> render() {
+        final StartupHistory.Boot boot = current();
+        final List<StartupHistory.Boot> earlier = history != null ? history : Collections.<StartupHistory.Boot>emptyList();
+        final StartupHistory.Boot previous = earlier.isEmpty() ? null : earlier.get(earlier.size() - 1);
+
+        final List<String> lines = new ArrayList<>();
+        lines.add(previous == null ? "Hellas startup timing (no earlier boot recorded):"
+                : "Hellas startup timing compared with the previous boot:");
+
+        lines.add("Phases reached (JVM uptime):");
+        for (Map.Entry<String, Double> phase : boot.getPhases().entrySet()) {
+            lines.add(compare(phase.getKey(), phase.getValue(), previous != null ? previous.getPhases() : null));
+        }
+
+        lines.add("Helper steps:");
+        for (Map.Entry<String, Double> step : boot.getSteps().entrySet()) {
+            lines.add(compare(step.getKey(), step.getValue(), previous != null ? previous.getSteps() : null));
+        }
+
+        final List<Map.Entry<String, Double>> modules = new ArrayList<>(boot.getModules().entrySet());
+        modules.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        lines.add("Slowest metadata loads:");
+        for (Map.Entry<String, Double> module : modules.subList(0, Math.min(SLOWEST_MODULES, modules.size()))) {
+            lines.add(compare(module.getKey(), module.getValue(), previous != null ? previous.getModules() : null));
+        }
+
+        if (!earlier.isEmpty()) {
+            final String started = Phase.SERVER_STARTED.label;
+            final List<String> trend = new ArrayList<>();
+            for (StartupHistory.Boot entry : earlier) {
+                final Double value = entry.getPhases().get(started);
+                trend.add(value != null ? duration(value) : "?");
+            }
+            trend.add(boot.getPhases().containsKey(started) ? duration(boot.getPhases().get(started)) : "?");
+            lines.add("Server started after, oldest boot first: " + String.join(", ", trend));
+        }
+        return lines;
+    }
+
+    /**
+     * @param name     name of the timing
+     * @param value    timing of the current boot in milliseconds
+     * @param previous timings of the previous boot, or {@code null}
+     * @return one report line comparing the timing with the previous boot
+     */
+    private static String compare(final String name, final double value, final Map<String, Double> previous) {
+        final Double before = previous != null ? previous.get(name) : null;
+        if (before == null) {
+            return "- " + name + ": " + duration(value);
+        }
+
+        final double delta = value - before;
+        return "- " + name + ": " + duration(value) + " (previous " + duration(before) + ", "
+                + (delta < 0.0D ? "-" : "+") + duration(Math.abs(delta)) + ")";
+    }
+
+    /**
+     * @param millis duration in milliseconds
+     * @return the duration in milliseconds below one second, otherwise in seconds
+     */
+    private static String duration(final double millis) {
+        return millis < 1000.0D ? String.format(Locale.ROOT, "%.1f ms", millis)
+                : String.format(Locale.ROOT, "%.1f s", millis / 1000.0D);
+    }
+}
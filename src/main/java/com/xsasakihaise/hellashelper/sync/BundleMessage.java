@@ -0,0 +1,58 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * Server to client: a manifest together with one compressed chunk of the
+ * entries the client was missing.
+ * <p>
+ * Large deltas are split over several messages that all carry the manifest;
+ * the client activates the manifest once it holds every entry it references.
+ * </p>
+ */
+final class BundleMessage {
+    private static final int MAX_MANIFEST_BYTES = 64 * 1024;
+    private static final int MAX_CHUNK_BYTES = 1024 * 1024;
+
+    private final byte[] manifest;
+    private final byte[] entries;
+
+    /**
+     * @param manifest encoded {@link SyncManifest}
+     * @param entries  chunk produced by {@link SyncCodec#deflate(java.util.Collection)}, or an empty array
+     */
+    BundleMessage(final byte[] manifest, final byte[] entries) {
+        this.manifest = manifest;
+        this.entries = entries;
+    }
+
+    /**
+     * @param buffer destination
+     */
+    void encode(final PacketBuffer buffer) {
+        buffer.writeByteArray(manifest);
+        buffer.writeByteArray(entries);
+    }
+
+    /**
+     * @param buffer source
+     * @return the decoded message
+     */
+    static BundleMessage decode(final PacketBuffer buffer) {
+        return new BundleMessage(buffer.readByteArray(MAX_MANIFEST_BYTES), buffer.readByteArray(MAX_CHUNK_BYTES));
+    }
+
+    /**
+     * @return the encoded manifest
+     */
+    byte[] getManifest() {
+        return manifest;
+    }
+
+    /**
+     * @return the compressed entry chunk, empty if the message carries no entries
+     */
+    byte[] getEntries() {
+        return entries;
+    }
+}
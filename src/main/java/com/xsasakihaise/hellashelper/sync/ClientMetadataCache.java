@@ -0,0 +1,209 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client-side store of the manifests and metadata entries received from
+ * servers, persisted between sessions.
+ * <p>
+ * Entries are keyed by their checksum rather than by server, so servers that
+ * run the same module builds share them and a client switching between them
+ * only downloads what actually differs. The last {@value #MAX_MANIFESTS}
+ * manifests are kept. The cache is only used from the client thread.
+ * </p>
+ * <pre>
+ * int   magic          'HHCM'
+ * short formatVersion  1
+ * int   manifests, then each manifest
+ * int   entries, then each entry
+ * </pre>
+ */
+public final class ClientMetadataCache {
+    static final int MAGIC = 0x4848434D;
+    static final int FORMAT_VERSION = 1;
+    private static final int MAX_MANIFESTS = 8;
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Path file;
+    private final Map<String, ModMetadata> entries = new HashMap<>();
+    private final LinkedHashMap<String, SyncManifest> manifests = new LinkedHashMap<>(16, 0.75F, true);
+    private SyncManifest active;
+
+    private ClientMetadataCache(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the cache, starting empty when the file is missing or unreadable.
+     *
+     * @param file cache file
+     * @return the cache
+     */
+    public static ClientMetadataCache load(final Path file) {
+        final ClientMetadataCache cache = new ClientMetadataCache(file);
+        if (!Files.exists(file)) {
+            return cache;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+                return cache;
+            }
+
+            final int manifestCount = in.readInt();
+            for (int i = 0; i < manifestCount; i++) {
+                final SyncManifest manifest = SyncManifest.read(in);
+                cache.manifests.put(manifest.getHash(), manifest);
+            }
+            final int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                final ModMetadata entry = SyncCodec.readEntry(in);
+                cache.entries.put(entry.getChecksum(), entry);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Ignoring unreadable Hellas metadata cache {}.", file, ex);
+            cache.manifests.clear();
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * Makes a known manifest the one used to answer commands locally.
+     *
+     * @param hash hash of the manifest the server offers
+     * @return {@code true} if the manifest and all its entries are cached
+     */
+    boolean activate(final String hash) {
+        final SyncManifest manifest = manifests.get(hash);
+        if (manifest == null || !isComplete(manifest)) {
+            return false;
+        }
+
+        active = manifest;
+        return true;
+    }
+
+    /**
+     * Stores a manifest received from the server together with entries, and
+     * activates it once every entry it references is present. Entries are
+     * keyed by their recomputed checksum, so a corrupted entry never satisfies
+     * the manifest.
+     *
+     * @param manifest received manifest
+     * @param received received entries
+     * @return {@code true} if the manifest is complete and now active
+     */
+    boolean accept(final SyncManifest manifest, final List<ModMetadata> received) {
+        for (ModMetadata entry : received) {
+            entries.put(entry.getChecksum(), entry);
+        }
+        manifests.put(manifest.getHash(), manifest);
+        return activate(manifest.getHash());
+    }
+
+    /**
+     * Stops answering commands locally, e.g. after leaving the server.
+     */
+    public void deactivate() {
+        active = null;
+    }
+
+    /**
+     * @param manifest manifest to check
+     * @return {@code true} if every entry the manifest references is cached
+     */
+    private boolean isComplete(final SyncManifest manifest) {
+        for (SyncManifest.Module module : manifest.getModules()) {
+            if (!entries.containsKey(module.getChecksum())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the oldest manifests and the entries no manifest references any
+     * more, then writes the cache through a temporary file.
+     */
+    void save() {
+        final Iterator<String> oldest = manifests.keySet().iterator();
+        while (manifests.size() > MAX_MANIFESTS) {
+            oldest.next();
+            oldest.remove();
+        }
+        final Set<String> referenced = new HashSet<>();
+        for (SyncManifest manifest : manifests.values()) {
+            for (SyncManifest.Module module : manifest.getModules()) {
+                referenced.add(module.getChecksum());
+            }
+        }
+        entries.keySet().retainAll(referenced);
+
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeInt(manifests.size());
+                for (SyncManifest manifest : manifests.values()) {
+                    manifest.write(out);
+                }
+                out.writeInt(entries.size());
+                for (ModMetadata entry : entries.values()) {
+                    SyncCodec.writeEntry(out, entry);
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to write the Hellas metadata cache {}.", file, ex);
+        }
+    }
+
+    /**
+     * @return checksums of every cached entry
+     */
+    Collection<String> checksums() {
+        return entries.keySet();
+    }
+
+    /**
+     * @return the manifest of the current server, or {@code null} if commands must go to the server
+     */
+    public SyncManifest getActive() {
+        return active;
+    }
+
+    /**
+     * @param checksum checksum of an entry
+     * @return the cached entry, or {@code null}
+     */
+    public ModMetadata get(final String checksum) {
+        return entries.get(checksum);
+    }
+}
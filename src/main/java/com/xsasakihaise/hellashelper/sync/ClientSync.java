@@ -0,0 +1,141 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.HellasHelper;
+import com.xsasakihaise.hellashelper.command.LocalMetadataCommands;
+import com.xsasakihaise.hellashelper.config.HellasHelperConfig;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraftforge.client.event.ClientChatEvent;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Client half of the metadata sync.
+ * <p>
+ * Only ever loaded on the physical client. Offers and bundles are handled on
+ * the client thread, and typed {@code /hellas} metadata commands are answered
+ * from the active manifest before they reach the network.
+ * </p>
+ */
+public final class ClientSync {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static ClientMetadataCache cache;
+
+    private ClientSync() {
+    }
+
+    /**
+     * Registers the client listeners. Called while the mod is constructed.
+     */
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(ClientSync::onChat);
+        MinecraftForge.EVENT_BUS.addListener(ClientSync::onLoggedOut);
+        MinecraftForge.EVENT_BUS.addListener(ClientSync::onRespawn);
+    }
+
+    /**
+     * Activates the offered manifest from the cache, or asks the server for
+     * it when the cache is missing the manifest or any of its entries.
+     *
+     * @param message offer received from the server
+     */
+    static void onOffer(final OfferMessage message) {
+        final ClientMetadataCache current = cache();
+        if (!current.activate(message.getHash())) {
+            current.deactivate();
+            MetadataSync.request(new RequestMessage(message.getHash(), current.checksums()));
+        }
+    }
+
+    /**
+     * Stores a received bundle chunk and persists the cache once the manifest
+     * is complete.
+     *
+     * @param message bundle received from the server
+     */
+    static void onBundle(final BundleMessage message) {
+        final SyncManifest manifest;
+        final List<ModMetadata> entries;
+        try {
+            manifest = SyncManifest.read(new DataInputStream(new ByteArrayInputStream(message.getManifest())));
+            entries = message.getEntries().length == 0
+                    ? Collections.<ModMetadata>emptyList()
+                    : SyncCodec.inflate(message.getEntries());
+        } catch (IOException ex) {
+            LOGGER.warn("Ignoring a corrupt Hellas metadata bundle.", ex);
+            return;
+        }
+
+        final ClientMetadataCache current = cache();
+        if (current.accept(manifest, entries)) {
+            current.save();
+        }
+    }
+
+    /**
+     * Answers a typed metadata command locally when the active manifest
+     * covers it, keeping the line in the chat history as if it had been sent.
+     *
+     * @param event chat event fired before the line is sent
+     */
+    private static void onChat(final ClientChatEvent event) {
+        final SyncManifest manifest = cache == null ? null : cache.getActive();
+        if (manifest == null || !HellasHelperConfig.SYNC_ENABLED.get()) {
+            return;
+        }
+
+        final ITextComponent reply = LocalMetadataCommands.answer(event.getMessage(), manifest, cache::get);
+        if (reply != null) {
+            event.setCanceled(true);
+            final Minecraft minecraft = Minecraft.getInstance();
+            minecraft.gui.getChat().addRecentChat(event.getMessage());
+            minecraft.gui.getChat().addMessage(reply);
+        }
+    }
+
+    /**
+     * Stops answering locally once the player leaves the server.
+     *
+     * @param event logout event
+     */
+    private static void onLoggedOut(final ClientPlayerNetworkEvent.LoggedOutEvent event) {
+        if (cache != null) {
+            cache.deactivate();
+        }
+    }
+
+    /**
+     * Stops answering locally on respawn, which is also how a proxy switches
+     * the player to another server; the server re-offers its manifest right
+     * after.
+     *
+     * @param event respawn event
+     */
+    private static void onRespawn(final ClientPlayerNetworkEvent.RespawnEvent event) {
+        if (cache != null) {
+            cache.deactivate();
+        }
+    }
+
+    /**
+     * @return the client cache, loaded on first use
+     */
+    private static ClientMetadataCache cache() {
+        if (cache == null) {
+            cache = ClientMetadataCache.load(FMLPaths.GAMEDIR.get().resolve(HellasHelper.MOD_ID)
+                    .resolve("client-metadata.bin"));
+        }
+        return cache;
+    }
+}
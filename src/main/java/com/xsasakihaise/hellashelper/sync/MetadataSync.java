@@ -0,0 +1,206 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.HellasHelper;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkEvent;
+import net.minecraftforge.fml.network.NetworkRegistry;
+import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Network channel that mirrors the suite metadata to clients running the
+ * helper, so they can answer the metadata commands without a round trip.
+ * <p>
+ * On login the server only sends the hash of its current {@link SyncManifest}.
+ * A client that already holds that manifest activates it from its cache;
+ * otherwise it asks for it, listing the entries it holds, and receives the
+ * manifest with a compressed delta of the missing entries. The channel
+ * accepts peers without the helper, which simply never receive anything.
+ * </p>
+ * <p>
+ * Requests are answered on the server thread, in order with the offers. A
+ * player gets at most one answer per offered manifest: further requests for
+ * the same hash are dropped until the server offers the player a manifest
+ * again, so a client cannot make the server compress the suite over and over.
+ * </p>
+ */
+public final class MetadataSync {
+    public static final String PROTOCOL = "1";
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
+            new ResourceLocation(HellasHelper.MOD_ID, "metadata"), () -> PROTOCOL,
+            NetworkRegistry.acceptMissingOr(PROTOCOL), NetworkRegistry.acceptMissingOr(PROTOCOL));
+
+    private static final ConcurrentMap<UUID, String> REQUESTED = new ConcurrentHashMap<>();
+
+    private static volatile SuiteBundle bundle;
+
+    private MetadataSync() {
+    }
+
+    /**
+     * Registers the sync messages. Must be called while the mod is constructed.
+     */
+    public static void register() {
+        CHANNEL.registerMessage(0, OfferMessage.class, OfferMessage::encode, OfferMessage::decode,
+                MetadataSync::handleOffer, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        CHANNEL.registerMessage(1, RequestMessage.class, RequestMessage::encode, RequestMessage::decode,
+                MetadataSync::handleRequest, Optional.of(NetworkDirection.PLAY_TO_SERVER));
+        CHANNEL.registerMessage(2, BundleMessage.class, BundleMessage::encode, BundleMessage::decode,
+                MetadataSync::handleBundle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+    }
+
+    /**
+     * Makes a bundle the one offered to clients and offers it to every player
+     * already online, on the server thread.
+     *
+     * @param next bundle of the newly published metadata snapshot
+     */
+    public static void publish(final SuiteBundle next) {
+        final SuiteBundle previous = bundle;
+        bundle = next;
+        if (previous != null && previous.getManifest().getHash().equals(next.getManifest().getHash())) {
+            return;
+        }
+
+        final MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server != null) {
+            server.execute(() -> {
+                for (ServerPlayerEntity player : server.getPlayerList().getPlayers()) {
+                    offer(player);
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends the hash of the current bundle to a player whose client runs the
+     * helper, allowing the player to request it once more.
+     *
+     * @param player player to offer the bundle to
+     */
+    public static void offer(final ServerPlayerEntity player) {
+        REQUESTED.remove(player.getUUID());
+        sendOffer(player);
+    }
+
+    /**
+     * Forgets the requests of a player who left the server.
+     *
+     * @param player player who logged out
+     */
+    public static void forget(final ServerPlayerEntity player) {
+        REQUESTED.remove(player.getUUID());
+    }
+
+    /**
+     * Sends the hash of the current bundle to a player whose client runs the
+     * helper.
+     *
+     * @param player player to offer the bundle to
+     */
+    private static void sendOffer(final ServerPlayerEntity player) {
+        final SuiteBundle current = bundle;
+        if (current == null || player.connection == null || !CHANNEL.isRemotePresent(player.connection.connection)) {
+            return;
+        }
+
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new OfferMessage(current.getManifest().getHash()));
+    }
+
+    /**
+     * Sends a client request to the server.
+     *
+     * @param request request for the offered manifest
+     */
+    static void request(final RequestMessage request) {
+        CHANNEL.sendToServer(request);
+    }
+
+    /**
+     * Hands a client request to the server thread.
+     *
+     * @param message request received from the client
+     * @param context network context of the request
+     */
+    private static void handleRequest(final RequestMessage message, final Supplier<NetworkEvent.Context> context) {
+        final ServerPlayerEntity player = context.get().getSender();
+        if (player != null) {
+            context.get().enqueueWork(() -> answer(player, message));
+        }
+        context.get().setPacketHandled(true);
+    }
+
+    /**
+     * Answers a client request with the manifest and the entries the client
+     * is missing. A request for a manifest that was replaced in the meantime
+     * is answered with a new offer instead, and a repeated request for a
+     * manifest the player already received is dropped.
+     *
+     * @param player  player who sent the request
+     * @param message request received from the client
+     */
+    private static void answer(final ServerPlayerEntity player, final RequestMessage message) {
+        final SuiteBundle current = bundle;
+        if (current == null) {
+            return;
+        }
+        if (!current.getManifest().getHash().equals(message.getHash())) {
+            sendOffer(player);
+            return;
+        }
+        if (message.getHash().equals(REQUESTED.put(player.getUUID(), message.getHash()))) {
+            LOGGER.debug("Dropping a repeated request for metadata manifest {}.", message.getHash());
+            return;
+        }
+
+        final byte[] manifest = current.getEncodedManifest();
+        final List<byte[]> chunks = current.chunks(new HashSet<>(message.getCached()));
+        if (chunks.isEmpty()) {
+            CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new BundleMessage(manifest, new byte[0]));
+            return;
+        }
+        for (byte[] chunk : chunks) {
+            CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new BundleMessage(manifest, chunk));
+        }
+        LOGGER.debug("Sent {} metadata chunk(s) of manifest {}.", chunks.size(), message.getHash());
+    }
+
+    /**
+     * Hands an offer to the client thread.
+     *
+     * @param message offer received from the server
+     * @param context network context of the offer
+     */
+    private static void handleOffer(final OfferMessage message, final Supplier<NetworkEvent.Context> context) {
+        context.get().enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientSync.onOffer(message)));
+        context.get().setPacketHandled(true);
+    }
+
+    /**
+     * Hands a bundle to the client thread.
+     *
+     * @param message bundle received from the server
+     * @param context network context of the bundle
+     */
+    private static void handleBundle(final BundleMessage message, final Supplier<NetworkEvent.Context> context) {
+        context.get().enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientSync.onBundle(message)));
+        context.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,42 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * Server to client: the hash of the manifest the server currently offers.
+ * <p>
+ * This is the only message a client with an up-to-date cache receives.
+ * </p>
+ */
+final class OfferMessage {
+    private final String hash;
+
+    /**
+     * @param hash hash of the offered manifest
+     */
+    OfferMessage(final String hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * @param buffer destination
+     */
+    void encode(final PacketBuffer buffer) {
+        buffer.writeUtf(hash);
+    }
+
+    /**
+     * @param buffer source
+     * @return the decoded message
+     */
+    static OfferMessage decode(final PacketBuffer buffer) {
+        return new OfferMessage(buffer.readUtf(64));
+    }
+
+    /**
+     * @return hash of the offered manifest
+     */
+    String getHash() {
+        return hash;
+    }
+}
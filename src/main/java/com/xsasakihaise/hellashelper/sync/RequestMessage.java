@@ -0,0 +1,68 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import net.minecraft.network.PacketBuffer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Client to server: asks for an offered manifest, listing the checksums of
+ * the entries the client already holds so that only the others are sent.
+ */
+final class RequestMessage {
+    static final int MAX_CHECKSUMS = 512;
+
+    private final String hash;
+    private final List<String> cached;
+
+    /**
+     * @param hash   hash of the requested manifest
+     * @param cached checksums of the entries the client holds; only the first {@value #MAX_CHECKSUMS} are sent
+     */
+    RequestMessage(final String hash, final Collection<String> cached) {
+        this.hash = hash;
+        final List<String> checksums = new ArrayList<>(cached);
+        this.cached = Collections.unmodifiableList(checksums.subList(0, Math.min(checksums.size(), MAX_CHECKSUMS)));
+    }
+
+    /**
+     * @param buffer destination
+     */
+    void encode(final PacketBuffer buffer) {
+        buffer.writeUtf(hash);
+        buffer.writeVarInt(cached.size());
+        for (String checksum : cached) {
+            buffer.writeUtf(checksum);
+        }
+    }
+
+    /**
+     * @param buffer source
+     * @return the decoded message
+     */
+    static RequestMessage decode(final PacketBuffer buffer) {
+        final String hash = buffer.readUtf(64);
+        final int count = Math.min(buffer.readVarInt(), MAX_CHECKSUMS);
+        final List<String> cached = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cached.add(buffer.readUtf(64));
+        }
+        return new RequestMessage(hash, cached);
+    }
+
+    /**
+     * @return hash of the requested manifest
+     */
+    String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return checksums of the entries the client holds
+     */
+    List<String> getCached() {
+        return cached;
+    }
+}
@@ -0,0 +1,132 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.module.HellasModule;
+import com.xsasakihaise.hellashelper.module.ModuleRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The metadata a server offers to clients for one metadata snapshot: a
+ * {@link SyncManifest} of the installed modules and their entries, keyed by
+ * checksum.
+ * <p>
+ * Bundles are immutable and built once per published snapshot, manifest
+ * encoding included, so answering a client only selects and compresses the
+ * entries it does not hold yet. The compressed chunks of the complete bundle,
+ * which every client with a cold cache asks for, are built on first use and
+ * then shared by all of them.
+ * </p>
+ */
+public final class SuiteBundle {
+    private final MetadataSnapshot source;
+    private final SyncManifest manifest;
+    private final byte[] encodedManifest;
+    private final Map<String, ModMetadata> entries;
+    private volatile List<byte[]> fullChunks;
+
+    private SuiteBundle(final MetadataSnapshot source, final SyncManifest manifest,
+                        final Map<String, ModMetadata> entries) {
+        this.source = source;
+        this.manifest = manifest;
+        this.encodedManifest = encode(manifest);
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Builds the bundle of a snapshot. Modules that are not installed are left
+     * out, so clients forward queries about them to the server.
+     *
+     * @param snapshot snapshot to offer
+     * @param registry modules of the command tree
+     * @param pageSize number of feature entries per page
+     * @return the bundle
+     */
+    public static SuiteBundle build(final MetadataSnapshot snapshot, final ModuleRegistry registry, final int pageSize) {
+        final List<SyncManifest.Module> modules = new ArrayList<>();
+        final Map<String, ModMetadata> entries = new LinkedHashMap<>();
+        for (HellasModule module : registry.modules()) {
+            final ModMetadata metadata = snapshot.get(module.getModId());
+            if (!metadata.isInstalled()) {
+                continue;
+            }
+
+            modules.add(new SyncManifest.Module(module.getModId(), module.getCommandLiteral(), module.getDisplayName(),
+                    metadata.getChecksum()));
+            entries.put(metadata.getChecksum(), metadata);
+        }
+        return new SuiteBundle(snapshot, SyncManifest.create(pageSize, modules), entries);
+    }
+
+    /**
+     * @param manifest manifest to send
+     * @return the encoded manifest
+     */
+    private static byte[] encode(final SyncManifest manifest) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            manifest.write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Compresses the entries a client is missing. When the client holds none
+     * of them, the shared chunks of the complete bundle are returned instead
+     * of compressing the suite again.
+     *
+     * @param cached checksums of the entries the client already holds
+     * @return the compressed chunks, empty if the client is missing nothing; callers must not modify the arrays
+     */
+    List<byte[]> chunks(final Collection<String> cached) {
+        final List<ModMetadata> missing = new ArrayList<>();
+        for (Map.Entry<String, ModMetadata> entry : entries.entrySet()) {
+            if (!cached.contains(entry.getKey())) {
+                missing.add(entry.getValue());
+            }
+        }
+        if (missing.size() < entries.size() || missing.isEmpty()) {
+            return SyncCodec.deflate(missing);
+        }
+
+        List<byte[]> full = fullChunks;
+        if (full == null) {
+            full = Collections.unmodifiableList(SyncCodec.deflate(missing));
+            fullChunks = full;
+        }
+        return full;
+    }
+
+    /**
+     * @return the snapshot the bundle was built from
+     */
+    public MetadataSnapshot getSource() {
+        return source;
+    }
+
+    /**
+     * @return the manifest of the bundle
+     */
+    public SyncManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * @return the manifest as sent to clients; callers must not modify the array
+     */
+    byte[] getEncodedManifest() {
+        return encodedManifest;
+    }
+}
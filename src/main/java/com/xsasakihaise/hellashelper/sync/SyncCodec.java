@@ -0,0 +1,238 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary form of metadata entries as sent to clients and kept in their cache.
+ * <p>
+ * An entry is its version followed by the dependency and feature lists, each
+ * string stored as an int byte length and UTF-8 bytes. Entries are sent in
+ * deflate-compressed chunks that stay well below the client-bound payload
+ * limit; the checksum of an entry is not sent but recomputed by the client,
+ * which also detects corrupted transfers.
+ * </p>
+ */
+final class SyncCodec {
+    private static final int CHUNK_BYTES = 512 * 1024;
+    private static final int MAX_INFLATED_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_STRING_BYTES = 1024 * 1024;
+
+    private SyncCodec() {
+    }
+
+    /**
+     * Splits entries into compressed chunks of at most about
+     * {@value #CHUNK_BYTES} uncompressed bytes each. An entry that is larger on
+     * its own gets a chunk of its own.
+     *
+     * @param entries entries to send
+     * @return the compressed chunks, empty if there are no entries
+     */
+    static List<byte[]> deflate(final Collection<ModMetadata> entries) {
+        final List<byte[]> chunks = new ArrayList<>();
+        final List<byte[]> pending = new ArrayList<>();
+        int size = 0;
+        for (ModMetadata entry : entries) {
+            final byte[] encoded = encode(entry);
+            if (!pending.isEmpty() && size + encoded.length > CHUNK_BYTES) {
+                chunks.add(compress(pending));
+                pending.clear();
+                size = 0;
+            }
+            pending.add(encoded);
+            size += encoded.length;
+        }
+        if (!pending.isEmpty()) {
+            chunks.add(compress(pending));
+        }
+        return chunks;
+    }
+
+    /**
+     * @param chunk chunk produced by {@link #deflate(Collection)}
+     * @return the entries of the chunk
+     * @throws IOException when the chunk is corrupt, truncated, has trailing data or inflates beyond
+     *                     {@value #MAX_INFLATED_BYTES} bytes
+     */
+    static List<ModMetadata> inflate(final byte[] chunk) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BoundedInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(chunk)), MAX_INFLATED_BYTES))) {
+            final int count = in.readInt();
+            final List<ModMetadata> entries = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(in));
+            }
+            // Reading to the end also verifies the zlib trailer, so a truncated chunk is rejected.
+            if (in.read() != -1) {
+                throw new IOException("Metadata chunk has trailing data");
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * @param entries encoded entries
+     * @return the deflated chunk holding the entry count and the entries
+     */
+    private static byte[] compress(final List<byte[]> entries) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes,
+                new Deflater(Deflater.BEST_COMPRESSION)))) {
+            out.writeInt(entries.size());
+            for (byte[] entry : entries) {
+                out.write(entry);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param entry entry to encode
+     * @return the encoded entry
+     */
+    private static byte[] encode(final ModMetadata entry) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeEntry(out, entry);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param out   destination
+     * @param entry entry to write
+     * @throws IOException when writing fails
+     */
+    static void writeEntry(final DataOutput out, final ModMetadata entry) throws IOException {
+        writeString(out, entry.getVersion());
+        writeStrings(out, entry.getDependencies());
+        writeStrings(out, entry.getFeatures());
+    }
+
+    /**
+     * @param in source positioned at an entry
+     * @return the entry
+     * @throws IOException when the entry is truncated
+     */
+    static ModMetadata readEntry(final DataInput in) throws IOException {
+        final String version = readString(in);
+        final List<String> dependencies = readStrings(in);
+        return ModMetadata.loaded(version, dependencies, readStrings(in));
+    }
+
+    /**
+     * @param out    destination
+     * @param values strings to write, preceded by their count
+     * @throws IOException when writing fails
+     */
+    private static void writeStrings(final DataOutput out, final List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    /**
+     * @param in source positioned at a string list
+     * @return the strings
+     * @throws IOException when the list is truncated
+     */
+    private static List<String> readStrings(final DataInput in) throws IOException {
+        final int count = in.readInt();
+        final List<String> values = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    /**
+     * @param out   destination
+     * @param value string to write
+     * @throws IOException when writing fails
+     */
+    private static void writeString(final DataOutput out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @param in source positioned at a string
+     * @return the string
+     * @throws IOException when the string is truncated or implausibly long
+     */
+    private static String readString(final DataInput in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stream that fails once more than a fixed number of bytes were read, so
+     * that a malicious chunk cannot inflate without bound.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private BoundedInputStream(final InputStream in, final long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int value = super.read();
+            if (value >= 0) {
+                consume(1L);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                consume(count);
+            }
+            return count;
+        }
+
+        /**
+         * @param count number of bytes read
+         * @throws IOException when the limit is exceeded
+         */
+        private void consume(final long count) throws IOException {
+            remaining -= count;
+            if (remaining < 0L) {
+                throw new IOException("Metadata chunk inflates beyond its size limit");
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.metadata.Hashes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The list of modules a server exposes to clients, with the checksum of each
+ * module's metadata entry.
+ * <p>
+ * The manifest is identified by a hash of its content. A client that already
+ * holds the manifest and every entry it references can answer
+ * {@code /hellas <mod> version}, {@code dependencies} and {@code features}
+ * locally, so the server only has to send that hash on login.
+ * </p>
+ */
+public final class SyncManifest {
+    private static final int HASH_HEX_LENGTH = 16;
+
+    private final String hash;
+    private final int pageSize;
+    private final List<Module> modules;
+
+    private SyncManifest(final String hash, final int pageSize, final List<Module> modules) {
+        this.hash = Objects.requireNonNull(hash);
+        this.pageSize = pageSize;
+        this.modules = Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * Creates a manifest and derives its hash.
+     *
+     * @param pageSize number of feature entries per page on the server
+     * @param modules  exposed modules, in command tree order
+     * @return the manifest
+     */
+    static SyncManifest create(final int pageSize, final List<Module> modules) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeBody(out, pageSize, modules);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        final String hash = Hashes.hex(Hashes.sha256().digest(bytes.toByteArray()), HASH_HEX_LENGTH);
+        return new SyncManifest(hash, pageSize, new ArrayList<>(modules));
+    }
+
+    /**
+     * @param in source positioned at a manifest written by {@link #write(DataOutput)}
+     * @return the manifest
+     * @throws IOException when the manifest is truncated
+     */
+    static SyncManifest read(final DataInput in) throws IOException {
+        final String hash = in.readUTF();
+        final int pageSize = in.readInt();
+        final int count = in.readInt();
+        final List<Module> modules = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            modules.add(new Module(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()));
+        }
+        return new SyncManifest(hash, pageSize, modules);
+    }
+
+    /**
+     * @param out destination
+     * @throws IOException when writing fails
+     */
+    void write(final DataOutput out) throws IOException {
+        out.writeUTF(hash);
+        writeBody(out, pageSize, modules);
+    }
+
+    /**
+     * @param out      destination
+     * @param pageSize number of feature entries per page
+     * @param modules  exposed modules
+     * @throws IOException when writing fails
+     */
+    private static void writeBody(final DataOutput out, final int pageSize, final List<Module> modules)
+            throws IOException {
+        out.writeInt(pageSize);
+        out.writeInt(modules.size());
+        for (Module module : modules) {
+            out.writeUTF(module.modId);
+            out.writeUTF(module.literal);
+            out.writeUTF(module.displayName);
+            out.writeUTF(module.checksum);
+        }
+    }
+
+    /**
+     * @param literal command literal typed after {@code /hellas}
+     * @return the module reached by the literal, or {@code null}
+     */
+    public Module find(final String literal) {
+        for (Module module : modules) {
+            if (module.literal.equals(literal)) {
+                return module;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return hash identifying the manifest content
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return number of feature entries per page on the server
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return the exposed modules
+     */
+    public List<Module> getModules() {
+        return modules;
+    }
+
+    /**
+     * One module listed in a manifest.
+     */
+    public static final class Module {
+        private final String modId;
+        private final String literal;
+        private final String displayName;
+        private final String checksum;
+
+        /**
+         * @param modId       id of the module
+         * @param literal     literal typed after {@code /hellas}
+         * @param displayName friendly name used in replies
+         * @param checksum    checksum of the module's metadata entry
+         */
+        Module(final String modId, final String literal, final String displayName, final String checksum) {
+            this.modId = modId;
+            this.literal = literal;
+            this.displayName = displayName;
+            this.checksum = checksum;
+        }
+
+        /**
+         * @return id of the module
+         */
+        public String getModId() {
+            return modId;
+        }
+
+        /**
+         * @return literal typed after {@code /hellas}
+         */
+        public String getLiteral() {
+            return literal;
+        }
+
+        /**
+         * @return friendly name used in replies
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @return checksum of the module's metadata entry
+         */
+        public String getChecksum() {
+            return checksum;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.xsasakihaise.hellashelper.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips and corrupt input for the binary {@link NodeSnapshot} form that
+ * nodes read from each other's files.
+ */
+final class NodeSnapshotTest {
+    private static final String HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    /**
+     * A snapshot decodes to its fields and encodes back to the same bytes.
+     */
+    @Test
+    void roundTripsSnapshot() throws IOException {
+        final byte[] bytes = encode(2);
+
+        final NodeSnapshot snapshot = NodeSnapshot.decode(ByteBuffer.wrap(bytes));
+
+        assertEquals("lobby-\u00e9", snapshot.getNode());
+        assertEquals(1234567890123L, snapshot.getPublishedMillis());
+        final Iterator<NodeSnapshot.Module> modules = snapshot.getModules().iterator();
+        final NodeSnapshot.Module installed = modules.next();
+        assertEquals("hellasexample", installed.getModId());
+        assertTrue(installed.isInstalled());
+        assertEquals("1.2.3", installed.getVersion());
+        assertEquals(HASH, installed.getJarHash());
+        assertEquals("0123456789abcdef", installed.getMetadataChecksum());
+        final NodeSnapshot.Module missing = modules.next();
+        assertEquals("hellasother", missing.getModId());
+        assertFalse(missing.isInstalled());
+        assertEquals("", missing.getVersion());
+        assertFalse(modules.hasNext());
+        assertNull(snapshot.get("hellasunknown"));
+
+        assertArrayEquals(bytes, snapshot.encode());
+    }
+
+    /**
+     * Decoding starts at the buffer position, so a snapshot can be read from
+     * a slice of a larger buffer.
+     */
+    @Test
+    void decodesFromBufferPosition() throws IOException {
+        final byte[] bytes = encode(2);
+        final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+        buffer.position(3);
+
+        assertEquals("lobby-\u00e9", NodeSnapshot.decode(buffer).getNode());
+    }
+
+    /**
+     * Every truncation of a valid snapshot is rejected.
+     */
+    @Test
+    void rejectsTruncatedSnapshot() throws IOException {
+        final byte[] bytes = encode(2);
+        for (int length = 0; length < bytes.length; length++) {
+            final ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> NodeSnapshot.decode(truncated), "length " + length);
+        }
+    }
+
+    /**
+     * Snapshots above the size limit, and module counts larger than the data,
+     * are rejected without allocating for them.
+     */
+    @Test
+    void rejectsOversizedSnapshot() throws IOException {
+        final byte[] bytes = encode(2);
+        final ByteBuffer oversized = ByteBuffer.allocate(NodeSnapshot.MAX_BYTES + 1);
+        oversized.put(bytes);
+        oversized.rewind();
+        assertThrows(IOException.class, () -> NodeSnapshot.decode(oversized));
+
+        final byte[] count = encode(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> NodeSnapshot.decode(ByteBuffer.wrap(count)));
+    }
+
+    /**
+     * Files that are not a snapshot, or of another format version, are rejected.
+     */
+    @Test
+    void rejectsForeignData() throws IOException {
+        final byte[] foreign = encode(2);
+        ByteBuffer.wrap(foreign).putInt(0, 0x504B0304);
+        assertThrows(IOException.class, () -> NodeSnapshot.decode(ByteBuffer.wrap(foreign)));
+
+        final byte[] future = encode(2);
+        ByteBuffer.wrap(future).putShort(4, (short) (NodeSnapshot.FORMAT_VERSION + 1));
+        assertThrows(IOException.class, () -> NodeSnapshot.decode(ByteBuffer.wrap(future)));
+    }
+
+    /**
+     * JAR hashes that are not a full hex SHA-256 are rejected, so a peer
+     * cannot make the rollcall cut a shorter hash.
+     */
+    @Test
+    void rejectsMalformedJarHash() throws IOException {
+        for (String jarHash : new String[] {"ba7816bf", HASH.substring(1), HASH + "0", HASH.toUpperCase(Locale.ROOT),
+                HASH.substring(1) + "g"}) {
+            final ByteBuffer buffer = ByteBuffer.wrap(encode(2, jarHash));
+            assertThrows(IOException.class, () -> NodeSnapshot.decode(buffer), jarHash);
+        }
+    }
+
+    /**
+     * Encodes a snapshot with one installed and one missing module, following
+     * the layout documented on {@link NodeSnapshot}.
+     *
+     * @param count module count to declare; only the first two modules are written
+     * @return the encoded snapshot
+     * @throws IOException never, the data is written to memory
+     */
+    private static byte[] encode(final int count) throws IOException {
+        return encode(count, HASH);
+    }
+
+    /**
+     * Encodes a snapshot with one installed and one missing module, following
+     * the layout documented on {@link NodeSnapshot}.
+     *
+     * @param count   module count to declare; only the first two modules are written
+     * @param jarHash JAR hash of the installed module
+     * @return the encoded snapshot
+     * @throws IOException never, the data is written to memory
+     */
+    private static byte[] encode(final int count, final String jarHash) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(NodeSnapshot.MAGIC);
+            out.writeShort(NodeSnapshot.FORMAT_VERSION);
+            out.writeShort(0);
+            out.writeLong(1234567890123L);
+            writeString(out, "lobby-\u00e9");
+            out.writeInt(count);
+            writeModule(out, "hellasexample", true, "1.2.3", jarHash, "0123456789abcdef");
+            writeModule(out, "hellasother", false, "", "", "");
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param out              destination
+     * @param modId            id of the module
+     * @param installed        whether the module is installed
+     * @param version          installed version
+     * @param jarHash          JAR fingerprint
+     * @param metadataChecksum metadata checksum
+     * @throws IOException never, the data is written to memory
+     */
+    private static void writeModule(final DataOutputStream out, final String modId, final boolean installed,
+                                    final String version, final String jarHash, final String metadataChecksum)
+            throws IOException {
+        writeString(out, modId);
+        out.writeByte(installed ? 1 : 0);
+        writeString(out, version);
+        writeString(out, jarHash);
+        writeString(out, metadataChecksum);
+    }
+
+    /**
+     * @param out   destination
+     * @param value string to write with its short length prefix
+     * @throws IOException never, the data is written to memory
+     */
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
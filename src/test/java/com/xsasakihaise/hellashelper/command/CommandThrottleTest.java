@@ -0,0 +1,188 @@
+package com.xsasakihaise.hellashelper.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Token buckets, limit parsing and pruning of {@link CommandThrottle}, driven
+ * by a clock the tests advance by hand.
+ */
+final class CommandThrottleTest {
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+
+    private long nanos = 123456789L;
+    private List<String> entries = Collections.emptyList();
+    private final CommandThrottle throttle = new CommandThrottle(() -> entries, () -> nanos);
+
+    /**
+     * A limit admits its burst at once, then one use per refill interval,
+     * and reports the time until the next token.
+     */
+    @Test
+    void admitsBurstThenRefillsEvenly() {
+        entries = Collections.singletonList("search=3/6");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, throttle.take(ALICE, "search"), "use " + i);
+        }
+        assertEquals(seconds(2), throttle.take(ALICE, "search"));
+
+        advance(seconds(1));
+        assertEquals(seconds(1), throttle.take(ALICE, "search"));
+        advance(seconds(1));
+        assertEquals(0L, throttle.take(ALICE, "search"));
+        assertEquals(seconds(2), throttle.take(ALICE, "search"));
+
+        advance(seconds(60));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, throttle.take(ALICE, "search"), "use " + i + " after a long pause");
+        }
+        assertEquals(seconds(2), throttle.take(ALICE, "search"));
+    }
+
+    /**
+     * Players and subcommands each have buckets of their own.
+     */
+    @Test
+    void keepsBucketsPerPlayerAndSubcommand() {
+        entries = Arrays.asList("search=1/5", "features=1/5");
+
+        assertEquals(0L, throttle.take(ALICE, "search"));
+        assertEquals(seconds(5), throttle.take(ALICE, "search"));
+        assertEquals(0L, throttle.take(ALICE, "features"));
+        assertEquals(0L, throttle.take(BOB, "search"));
+    }
+
+    /**
+     * Without limits, subcommands share the built-in default of ten uses per
+     * ten seconds.
+     */
+    @Test
+    void appliesBuiltInDefault() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, throttle.take(ALICE, i % 2 == 0 ? "search" : "features"), "use " + i);
+        }
+        assertEquals(seconds(1), throttle.take(ALICE, "search"));
+        assertEquals(seconds(1), throttle.take(ALICE, "depcheck"));
+    }
+
+    /**
+     * The {@code *} entry replaces the default for every subcommand without a
+     * limit of its own.
+     */
+    @Test
+    void appliesConfiguredDefault() {
+        entries = Arrays.asList("*=2/4", "search=1/8");
+
+        assertEquals(0L, throttle.take(ALICE, "features"));
+        assertEquals(0L, throttle.take(ALICE, "depcheck"));
+        assertEquals(seconds(2), throttle.take(ALICE, "features"));
+        assertEquals(0L, throttle.take(ALICE, "search"));
+        assertEquals(seconds(8), throttle.take(ALICE, "search"));
+    }
+
+    /**
+     * Malformed entries are skipped, so their subcommand falls back to the
+     * default, while the valid entries around them still apply.
+     */
+    @Test
+    void skipsMalformedEntries() {
+        for (String malformed : new String[] {"search", "=1/5", "search=1", "search=x/5", "search=1/x", "search=0/5",
+                "search=1/0", "search=-1/5", "search=1/5/5", ""}) {
+            entries = Arrays.asList(malformed, "*=1/3", "features=1/7");
+
+            assertEquals(0L, throttle.take(ALICE, "search"), malformed);
+            assertEquals(seconds(3), throttle.take(ALICE, "search"), malformed);
+            assertEquals(0L, throttle.take(ALICE, "features"), malformed);
+            assertEquals(seconds(7), throttle.take(ALICE, "features"), malformed);
+        }
+    }
+
+    /**
+     * A later entry for the same subcommand replaces the earlier one.
+     */
+    @Test
+    void laterEntryWins() {
+        entries = Arrays.asList("search=1/2", " search = 1 / 5 ");
+
+        assertEquals(0L, throttle.take(ALICE, "search"));
+        assertEquals(seconds(5), throttle.take(ALICE, "search"));
+    }
+
+    /**
+     * A reloaded config is parsed again and starts every bucket full.
+     */
+    @Test
+    void resetsBucketsOnReload() {
+        entries = Collections.singletonList("search=1/5");
+        assertEquals(0L, throttle.take(ALICE, "search"));
+        assertEquals(seconds(5), throttle.take(ALICE, "search"));
+
+        entries = Collections.singletonList("search=1/9");
+        assertEquals(0L, throttle.take(ALICE, "search"));
+        assertEquals(seconds(9), throttle.take(ALICE, "search"));
+    }
+
+    /**
+     * Pruning forgets players whose buckets are all full again and keeps the
+     * others.
+     */
+    @Test
+    void prunesIdlePlayers() {
+        entries = Arrays.asList("search=2/4", "features=1/6");
+        throttle.take(ALICE, "search");
+        throttle.take(BOB, "features");
+        assertEquals(2, throttle.players());
+
+        advance(seconds(1));
+        throttle.prune();
+        assertEquals(2, throttle.players());
+
+        advance(seconds(1));
+        throttle.prune();
+        assertEquals(1, throttle.players());
+
+        advance(seconds(4));
+        throttle.prune();
+        assertEquals(0, throttle.players());
+    }
+
+    /**
+     * Server ticks only prune once a minute's worth of them has passed.
+     */
+    @Test
+    void prunesEveryMinuteOfTicks() {
+        throttle.take(ALICE, "search");
+        advance(seconds(60));
+
+        for (int i = 1; i < 1200; i++) {
+            throttle.onTick();
+        }
+        assertEquals(1, throttle.players());
+        throttle.onTick();
+        assertEquals(0, throttle.players());
+    }
+
+    /**
+     * @param amount nanoseconds to move the clock forward
+     */
+    private void advance(final long amount) {
+        nanos += amount;
+    }
+
+    /**
+     * @param seconds number of seconds
+     * @return the seconds in nanoseconds
+     */
+    private static long seconds(final long seconds) {
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
@@ -0,0 +1,225 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import com.xsasakihaise.hellashelper.metadata.MetadataSnapshot;
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import com.xsasakihaise.hellashelper.metadata.TestSnapshots;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ordering, cycle detection and incremental updates of {@link DependencyGraph}.
+ */
+final class DependencyGraphTest {
+    private static final List<String> KNOWN = Arrays.asList("hellasa", "hellasb", "hellasc", "hellasd");
+
+    private final InstalledMods mods = new InstalledMods().install("hellasa", "1.0.0").install("hellasb", "1.0.0")
+            .install("hellasc", "1.0.0").install("hellasd", "1.0.0");
+
+    /**
+     * Every module comes after the modules it depends on.
+     */
+    @Test
+    void ordersDependenciesFirst() {
+        final DependencyGraph graph = graph(entries("hellasa", "hellasb", "hellasc", "hellasd"),
+                "hellasa", "hellasb", "hellasc");
+
+        assertEquals(Arrays.asList("hellasc", "hellasd", "hellasb", "hellasa"), graph.getOrder());
+        assertTrue(graph.getCycles().isEmpty());
+        for (ModuleCheck check : graph.getChecks()) {
+            assertTrue(check.getProblems().isEmpty(), check.getModId());
+        }
+    }
+
+    /**
+     * Modules depending on each other form a cycle and are left out of the
+     * order together with the modules behind them; modules outside it are
+     * still ordered.
+     */
+    @Test
+    void detectsCycle() {
+        final Map<String, ModMetadata> entries = entries("hellasa", "hellasb", "hellasc", "hellasd");
+        entries.put("hellasc", loaded("hellasa"));
+        final DependencyGraph graph = graph(entries, "hellasa", "hellasb", "hellasc");
+
+        assertEquals(Collections.singletonList(Arrays.asList("hellasa", "hellasb", "hellasc")), graph.getCycles());
+        assertEquals(Collections.singletonList("hellasd"), graph.getOrder());
+    }
+
+    /**
+     * A module depending on itself is a cycle of its own.
+     */
+    @Test
+    void detectsSelfDependency() {
+        final Map<String, ModMetadata> entries = entries("hellasa", "hellasb");
+        entries.put("hellasa", loaded("hellasa"));
+        final DependencyGraph graph = update(null, TestSnapshots.of(entries));
+
+        assertEquals(Collections.singletonList(Collections.singletonList("hellasa")), graph.getCycles());
+        assertEquals(Collections.singletonList("hellasb"), graph.getOrder());
+    }
+
+    /**
+     * A module that is not installed has no check of its own and does not
+     * hold up the modules depending on it, which report it as missing.
+     */
+    @Test
+    void reportsMissingModule() {
+        final Map<String, ModMetadata> entries = entries("hellasa");
+        entries.put("hellasa", loaded("hellasb"));
+        entries.put("hellasb", ModMetadata.missing());
+        final DependencyGraph graph = DependencyGraph.update(null, TestSnapshots.of(entries), KNOWN,
+                new InstalledMods().install("hellasa", "1.0.0"));
+
+        assertEquals(Collections.singletonList("hellasa"), graph.getOrder());
+        assertNull(check(graph, "hellasb"));
+        final List<ModuleCheck.Problem> problems = check(graph, "hellasa").getProblems();
+        assertEquals(1, problems.size());
+        assertEquals(ModuleCheck.Problem.Kind.MISSING, problems.get(0).getKind());
+    }
+
+    /**
+     * An installed version outside the declared range is reported on the
+     * module declaring it, without affecting the order.
+     */
+    @Test
+    void reportsRangeMismatch() {
+        final Map<String, ModMetadata> entries = entries("hellasa", "hellasb");
+        entries.put("hellasa", loaded("hellasb [2.0,3.0)"));
+        final DependencyGraph graph = update(null, TestSnapshots.of(entries));
+
+        assertEquals(Arrays.asList("hellasb", "hellasa"), graph.getOrder());
+        final ModuleCheck.Problem problem = check(graph, "hellasa").getProblems().get(0);
+        assertEquals(ModuleCheck.Problem.Kind.MISMATCH, problem.getKind());
+        assertEquals("1.0.0", problem.getInstalledVersion());
+    }
+
+    /**
+     * When only one entry changed, only that module is checked again and the
+     * other checks are reused.
+     */
+    @Test
+    void recomputesOnlyChangedModule() {
+        final DependencyGraph first = graph(entries("hellasa", "hellasb", "hellasc", "hellasd"),
+                "hellasa", "hellasb", "hellasc");
+        final ModMetadata changed = loaded("hellasc 1.0+");
+        final MetadataSnapshot second = TestSnapshots.with(first.getSource(),
+                Collections.singletonMap("hellasb", changed));
+
+        final DependencyGraph updated = update(first, second);
+
+        assertSame(second, updated.getSource());
+        assertNotSame(check(first, "hellasb"), check(updated, "hellasb"));
+        assertSame(changed, check(updated, "hellasb").getMetadata());
+        for (String modId : Arrays.asList("hellasa", "hellasc", "hellasd")) {
+            assertSame(check(first, modId), check(updated, modId), modId);
+        }
+        assertEquals(first.getOrder(), updated.getOrder());
+        assertTrue(updated.getCycles().isEmpty());
+    }
+
+    /**
+     * When the changed module's edges change, the order is computed again
+     * while the other checks are still reused.
+     */
+    @Test
+    void reordersWhenEdgesChange() {
+        final DependencyGraph first = graph(entries("hellasa", "hellasb", "hellasc", "hellasd"),
+                "hellasa", "hellasb", "hellasc");
+        final MetadataSnapshot second = TestSnapshots.with(first.getSource(),
+                Collections.singletonMap("hellasc", loaded("hellasa")));
+
+        final DependencyGraph updated = update(first, second);
+
+        assertEquals(Collections.singletonList(Arrays.asList("hellasa", "hellasb", "hellasc")), updated.getCycles());
+        assertEquals(Collections.singletonList("hellasd"), updated.getOrder());
+        for (String modId : Arrays.asList("hellasa", "hellasb", "hellasd")) {
+            assertSame(check(first, modId), check(updated, modId), modId);
+        }
+    }
+
+    /**
+     * A module that is uninstalled drops out of the graph, which is ordered
+     * again without it.
+     */
+    @Test
+    void dropsUninstalledModule() {
+        final DependencyGraph first = graph(entries("hellasa", "hellasb"), "hellasa");
+        final MetadataSnapshot second = TestSnapshots.with(first.getSource(),
+                Collections.singletonMap("hellasb", ModMetadata.missing()));
+
+        final DependencyGraph updated = update(first, second);
+
+        assertNull(check(updated, "hellasb"));
+        assertEquals(Collections.singletonList("hellasa"), updated.getOrder());
+        assertSame(check(first, "hellasa"), check(updated, "hellasa"));
+    }
+
+    /**
+     * @param modIds ids of the modules to install without dependencies
+     * @return mutable entries keyed by mod id, in the given order
+     */
+    private static Map<String, ModMetadata> entries(final String... modIds) {
+        final Map<String, ModMetadata> entries = new LinkedHashMap<>();
+        for (String modId : modIds) {
+            entries.put(modId, loaded());
+        }
+        return entries;
+    }
+
+    /**
+     * Builds a graph in which each of the given modules depends on the one
+     * after it, except for the last.
+     *
+     * @param entries entries to start from; the listed modules but the last are replaced
+     * @param chain   modules forming the dependency chain
+     * @return the graph built without a previous graph
+     */
+    private DependencyGraph graph(final Map<String, ModMetadata> entries, final String... chain) {
+        for (int i = 0; i + 1 < chain.length; i++) {
+            entries.put(chain[i], loaded(chain[i + 1]));
+        }
+        return update(null, TestSnapshots.of(entries));
+    }
+
+    /**
+     * @param previous graph of the earlier snapshot, or {@code null}
+     * @param snapshot snapshot to check
+     * @return the updated graph
+     */
+    private DependencyGraph update(final DependencyGraph previous, final MetadataSnapshot snapshot) {
+        return DependencyGraph.update(previous, snapshot, KNOWN, mods);
+    }
+
+    /**
+     * @param dependencies declared dependency entries
+     * @return a loaded entry declaring the dependencies
+     */
+    private static ModMetadata loaded(final String... dependencies) {
+        return ModMetadata.loaded("1.0.0", Arrays.asList(dependencies), Collections.<String>emptyList());
+    }
+
+    /**
+     * @param graph graph to search
+     * @param modId id of the module
+     * @return the module's check, or {@code null} if it has none
+     */
+    private static ModuleCheck check(final DependencyGraph graph, final String modId) {
+        for (ModuleCheck check : graph.getChecks()) {
+            if (check.getModId().equals(modId)) {
+                return check;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import com.xsasakihaise.hellashelper.metadata.ModLookup;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Test stand-in for the installed mods, knowing only their versions.
+ */
+final class InstalledMods implements ModLookup {
+    private final Map<String, String> versions = new HashMap<>();
+
+    /**
+     * Registers a mod as installed.
+     *
+     * @param modId   id of the mod
+     * @param version version reported for the mod
+     * @return this lookup
+     */
+    InstalledMods install(final String modId, final String version) {
+        versions.put(modId, version);
+        return this;
+    }
+
+    @Override
+    public boolean isLoaded(final String modId) {
+        return versions.containsKey(modId);
+    }
+
+    @Override
+    public Optional<Path> findResource(final String modId, final String resource) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> installedVersion(final String modId) {
+        return Optional.ofNullable(versions.get(modId));
+    }
+}
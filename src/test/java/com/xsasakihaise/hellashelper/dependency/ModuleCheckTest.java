@@ -0,0 +1,105 @@
+package com.xsasakihaise.hellashelper.dependency;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checking the declared dependencies of one module with {@link ModuleCheck}.
+ */
+final class ModuleCheckTest {
+    private static final List<String> KNOWN = Arrays.asList("hellasexample", "hellascore", "hellasother");
+
+    private final InstalledMods mods = new InstalledMods().install("hellascore", "2.1.0");
+
+    /**
+     * Dependencies whose target is installed in a matching version produce an
+     * edge and no problem, whether they declare a range, a minimum or nothing.
+     */
+    @Test
+    void acceptsSatisfiedDependencies() {
+        for (String dependency : new String[] {"hellascore", "HellasCore 2.0+", "hellascore 2.1.0", "hellascore [2.0,3.0)"}) {
+            final ModuleCheck check = check(dependency);
+
+            assertEquals(Collections.singleton("hellascore"), check.getEdges(), dependency);
+            assertTrue(check.getProblems().isEmpty(), dependency);
+            assertEquals(0, check.getUnchecked(), dependency);
+        }
+    }
+
+    /**
+     * A known module that is not installed is reported as missing and still
+     * counts as an edge.
+     */
+    @Test
+    void reportsMissingModule() {
+        final ModuleCheck check = check("hellasother 1.0+");
+
+        assertEquals(Collections.singleton("hellasother"), check.getEdges());
+        final ModuleCheck.Problem problem = check.getProblems().get(0);
+        assertEquals(ModuleCheck.Problem.Kind.MISSING, problem.getKind());
+        assertEquals("hellasexample", problem.getModId());
+        assertEquals("hellasother 1.0+", problem.getDependency());
+        assertNull(problem.getInstalledVersion());
+    }
+
+    /**
+     * An installed version outside the declared range is reported with the
+     * version that is installed.
+     */
+    @Test
+    void reportsRangeMismatch() {
+        for (String dependency : new String[] {"hellascore [1.0,2.0)", "hellascore 3.0+", "hellascore (2.1.0,)"}) {
+            final List<ModuleCheck.Problem> problems = check(dependency).getProblems();
+
+            assertEquals(1, problems.size(), dependency);
+            assertEquals(ModuleCheck.Problem.Kind.MISMATCH, problems.get(0).getKind(), dependency);
+            assertEquals(dependency, problems.get(0).getDependency());
+            assertEquals("2.1.0", problems.get(0).getInstalledVersion(), dependency);
+        }
+    }
+
+    /**
+     * Entries with an unparsable range are reported as invalid without an
+     * edge, and dependencies outside the suite are only counted.
+     */
+    @Test
+    void reportsInvalidAndCountsUncheckedEntries() {
+        final ModuleCheck check = check("hellascore [2.0", "minecraft 1.16.5", "forge");
+
+        assertTrue(check.getEdges().isEmpty());
+        assertEquals(1, check.getProblems().size());
+        assertEquals(ModuleCheck.Problem.Kind.INVALID, check.getProblems().get(0).getKind());
+        assertEquals(2, check.getUnchecked());
+    }
+
+    /**
+     * The check keeps the entry it was computed from, which is how the graph
+     * tells whether it is still valid.
+     */
+    @Test
+    void keepsCheckedEntry() {
+        final ModMetadata metadata = ModMetadata.loaded("1.0.0", Collections.singletonList("hellascore"),
+                Collections.<String>emptyList());
+
+        assertSame(metadata, ModuleCheck.check("hellasexample", metadata, KNOWN, mods).getMetadata());
+    }
+
+    /**
+     * @param dependencies dependency entries declared by {@code hellasexample}
+     * @return the check of {@code hellasexample}
+     */
+    private ModuleCheck check(final String... dependencies) {
+        final ModMetadata metadata = ModMetadata.loaded("1.0.0", Arrays.asList(dependencies),
+                Collections.<String>emptyList());
+        return ModuleCheck.check("hellasexample", metadata, KNOWN, mods);
+    }
+}
@@ -0,0 +1,217 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Round trips and corrupt input for the binary {@code .hmi} metadata index.
+ * <p>
+ * The reference encoder mirrors the {@code compileMetadataIndex} task in
+ * {@code build.gradle}, so the reader is checked against the files that are
+ * actually shipped.
+ * </p>
+ */
+final class MetadataIndexTest {
+    private static final List<String> DEPENDENCIES = Arrays.asList("hellascontrol [2.0,3.0)", "pixelmon 8.4.0+");
+    private static final List<String> FEATURES = Arrays.asList("Adds /hellas commands",
+            "\u00dcn\u00efcode \u2013 entries \u2713", "");
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A file written by the build task reads back unchanged, memory-mapped.
+     */
+    @Test
+    void readsIndexWrittenByBuildTask() throws IOException {
+        final Path file = Files.write(directory.resolve("hellasexample" + MetadataIndex.EXTENSION),
+                encode("1.2.3", DEPENDENCIES, FEATURES));
+
+        final MetadataIndex index = MetadataIndex.read(file);
+
+        assertEquals(Optional.of("1.2.3"), index.version());
+        assertEquals(DEPENDENCIES, index.dependencies());
+        assertEquals(FEATURES, index.features());
+    }
+
+    /**
+     * The in-memory writer used by the streaming parser produces an index that
+     * reads back the same entries.
+     */
+    @Test
+    void writerRoundTripsEntries() throws IOException {
+        final MetadataIndexWriter writer = new MetadataIndexWriter();
+        writer.version("1.2.3");
+        DEPENDENCIES.forEach(writer.dependencies()::add);
+        FEATURES.forEach(writer.features()::add);
+
+        final MetadataIndex index = writer.build();
+
+        assertEquals(Optional.of("1.2.3"), index.version());
+        assertEquals(DEPENDENCIES, index.dependencies());
+        assertEquals(FEATURES, index.features());
+    }
+
+    /**
+     * An index without a version and with empty tables is valid.
+     */
+    @Test
+    void readsIndexWithoutVersion() throws IOException {
+        final MetadataIndex index = MetadataIndex.wrap(ByteBuffer.wrap(
+                encode(null, Collections.<String>emptyList(), Collections.<String>emptyList())));
+
+        assertEquals(Optional.empty(), index.version());
+        assertEquals(Collections.emptyList(), index.dependencies());
+        assertEquals(Collections.emptyList(), index.features());
+    }
+
+    /**
+     * Entries outside the table are rejected rather than decoded from
+     * whatever follows it in the buffer.
+     */
+    @Test
+    void rejectsEntriesOutsideTable() throws IOException {
+        final List<String> features = MetadataIndex.wrap(ByteBuffer.wrap(encode("1.0", DEPENDENCIES, FEATURES)))
+                .features();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> features.get(FEATURES.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> features.get(-1));
+    }
+
+    /**
+     * Every truncation of a valid index is rejected when it is opened.
+     */
+    @Test
+    void rejectsTruncatedIndex() throws IOException {
+        final byte[] bytes = encode("1.2.3", DEPENDENCIES, Arrays.asList("Adds /hellas commands", "last"));
+        for (int length = 0; length < bytes.length; length++) {
+            final ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> MetadataIndex.wrap(truncated), "length " + length);
+        }
+    }
+
+    /**
+     * Offsets, counts and lengths that point past the end of the buffer are
+     * rejected when the index is opened.
+     */
+    @Test
+    void rejectsOversizedTablesAndStrings() throws IOException {
+        final byte[] bytes = encode("1.2.3", DEPENDENCIES, FEATURES);
+        final int versionOffset = ByteBuffer.wrap(bytes).getInt(8);
+        final int dependenciesOffset = ByteBuffer.wrap(bytes).getInt(12);
+
+        assertRejected(bytes, 12, Integer.MAX_VALUE);
+        assertRejected(bytes, 12, -4);
+        assertRejected(bytes, dependenciesOffset, Integer.MAX_VALUE);
+        assertRejected(bytes, dependenciesOffset, -1);
+        assertRejected(bytes, dependenciesOffset + 4, bytes.length);
+        assertRejected(bytes, versionOffset, Integer.MAX_VALUE);
+        assertRejected(bytes, versionOffset, -1);
+    }
+
+    /**
+     * Files that are not an index, or of another format version, are rejected.
+     */
+    @Test
+    void rejectsForeignData() throws IOException {
+        final byte[] bytes = encode("1.2.3", DEPENDENCIES, FEATURES);
+
+        assertRejected(bytes, 0, 0x7B226E61);
+        final byte[] future = bytes.clone();
+        ByteBuffer.wrap(future).putShort(4, (short) (MetadataIndex.FORMAT_VERSION + 1));
+        assertThrows(IOException.class, () -> MetadataIndex.wrap(ByteBuffer.wrap(future)));
+    }
+
+    /**
+     * Overwrites one int of an encoded index and expects opening it to fail.
+     *
+     * @param bytes  valid index, left unchanged
+     * @param offset offset of the int to replace
+     * @param value  replacement value
+     */
+    private static void assertRejected(final byte[] bytes, final int offset, final int value) {
+        final byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(offset, value);
+        assertThrows(IOException.class, () -> MetadataIndex.wrap(ByteBuffer.wrap(corrupt)),
+                "offset " + offset + " = " + value);
+    }
+
+    /**
+     * Encodes an index the way the {@code compileMetadataIndex} build task does.
+     *
+     * @param version      version string, or {@code null}
+     * @param dependencies dependency entries
+     * @param features     feature entries
+     * @return the encoded index
+     * @throws IOException never, the data is written to memory
+     */
+    private static byte[] encode(final String version, final List<String> dependencies, final List<String> features)
+            throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(body);
+        int versionOffset = -1;
+        if (version != null) {
+            versionOffset = 20 + out.size();
+            writeString(out, version);
+        }
+        final int dependenciesOffset = writeTable(out, dependencies);
+        final int featuresOffset = writeTable(out, features);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream index = new DataOutputStream(bytes);
+        index.writeInt(MetadataIndex.MAGIC);
+        index.writeShort(MetadataIndex.FORMAT_VERSION);
+        index.writeShort(0);
+        index.writeInt(versionOffset);
+        index.writeInt(dependenciesOffset);
+        index.writeInt(featuresOffset);
+        index.write(body.toByteArray());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param out    body of the index
+     * @param values entries of the table
+     * @return absolute offset of the table
+     * @throws IOException never, the data is written to memory
+     */
+    private static int writeTable(final DataOutputStream out, final List<String> values) throws IOException {
+        final int offset = 20 + out.size();
+        int cursor = offset + 4 + 4 * values.size();
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(cursor);
+            cursor += 4 + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        for (String value : values) {
+            writeString(out, value);
+        }
+        return offset;
+    }
+
+    /**
+     * @param out   body of the index
+     * @param value string to append with its length prefix
+     * @throws IOException never, the data is written to memory
+     */
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,29 @@
+package com.xsasakihaise.hellashelper.metadata;
+
+import java.util.Map;
+
+/**
+ * Builds {@link MetadataSnapshot}s for tests in other packages, which cannot
+ * reach the package-private constructor.
+ */
+public final class TestSnapshots {
+    private TestSnapshots() {
+    }
+
+    /**
+     * @param entries entries keyed by mod id, in registration order
+     * @return a snapshot holding the entries
+     */
+    public static MetadataSnapshot of(final Map<String, ModMetadata> entries) {
+        return new MetadataSnapshot(entries);
+    }
+
+    /**
+     * @param snapshot snapshot to copy
+     * @param changed  entries to add or replace, keyed by mod id
+     * @return a copy of the snapshot with the entries replaced, as a reload publishes it
+     */
+    public static MetadataSnapshot with(final MetadataSnapshot snapshot, final Map<String, ModMetadata> changed) {
+        return snapshot.with(changed);
+    }
+}
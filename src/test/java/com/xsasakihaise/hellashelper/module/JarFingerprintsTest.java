@@ -0,0 +1,160 @@
+package com.xsasakihaise.hellashelper.module;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hashing and the binary fingerprint cache of {@link JarFingerprints}.
+ */
+final class JarFingerprintsTest {
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+    private static final String FAKE_SHA256 = "0000000000000000000000000000000000000000000000000000000000000000";
+
+    @TempDir
+    Path directory;
+
+    private Path jar;
+    private Path cacheFile;
+    private Map<String, Path> files;
+
+    /**
+     * Creates a module file holding {@code abc}.
+     */
+    @BeforeEach
+    void createJar() throws IOException {
+        jar = Files.write(directory.resolve("hellasexample.jar"), "abc".getBytes(StandardCharsets.US_ASCII))
+                .toAbsolutePath();
+        cacheFile = directory.resolve("fingerprints.bin");
+        files = Collections.singletonMap("hellasexample", jar);
+    }
+
+    /**
+     * Files are hashed with SHA-256 and the result is cached.
+     */
+    @Test
+    void hashesFilesAndWritesCache() {
+        final JarFingerprints fingerprints = JarFingerprints.compute(files, cacheFile);
+
+        assertEquals(Optional.of(ABC_SHA256), fingerprints.get("hellasexample"));
+        assertEquals(Optional.of(ABC_SHA256.substring(0, JarFingerprints.SHORT_LENGTH)),
+                fingerprints.getShort("hellasexample"));
+        assertEquals(Optional.empty(), fingerprints.get("hellasmissing"));
+        assertTrue(Files.isRegularFile(cacheFile));
+    }
+
+    /**
+     * A cached hash is used while the file keeps its size and modification
+     * time, and replaced once the file changes.
+     */
+    @Test
+    void reusesCachedHashOfUnchangedFile() throws IOException {
+        Files.write(cacheFile, cache(Files.size(jar), Files.getLastModifiedTime(jar).toMillis(), FAKE_SHA256));
+        assertEquals(Optional.of(FAKE_SHA256), JarFingerprints.compute(files, cacheFile).get("hellasexample"));
+
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 2000L));
+        assertEquals(Optional.of(ABC_SHA256), JarFingerprints.compute(files, cacheFile).get("hellasexample"));
+    }
+
+    /**
+     * A cache written by one run is read back by the next.
+     */
+    @Test
+    void roundTripsCache() throws IOException {
+        JarFingerprints.compute(files, cacheFile);
+        final byte[] written = Files.readAllBytes(cacheFile);
+
+        assertEquals(Optional.of(ABC_SHA256), JarFingerprints.compute(files, cacheFile).get("hellasexample"));
+        assertTrue(Arrays.equals(written, Files.readAllBytes(cacheFile)), "unchanged cache is not rewritten");
+    }
+
+    /**
+     * Every truncation of the cache is ignored and the file is hashed again.
+     */
+    @Test
+    void ignoresTruncatedCache() throws IOException {
+        final byte[] bytes = cache(Files.size(jar), Files.getLastModifiedTime(jar).toMillis(), FAKE_SHA256);
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(cacheFile, Arrays.copyOf(bytes, length));
+            assertEquals(Optional.of(ABC_SHA256), JarFingerprints.compute(files, cacheFile).get("hellasexample"),
+                    "length " + length);
+        }
+    }
+
+    /**
+     * A cache claiming more entries than it holds, or of another format, is
+     * ignored.
+     */
+    @Test
+    void ignoresOversizedAndForeignCache() throws IOException {
+        final byte[] bytes = cache(Files.size(jar), Files.getLastModifiedTime(jar).toMillis(), FAKE_SHA256);
+
+        final byte[] oversized = bytes.clone();
+        oversized[6] = oversized[7] = oversized[8] = 0x7F;
+        Files.write(cacheFile, oversized);
+        assertEquals(Optional.of(ABC_SHA256), JarFingerprints.compute(files, cacheFile).get("hellasexample"));
+
+        final byte[] future = bytes.clone();
+        future[5] = (byte) (JarFingerprints.FORMAT_VERSION + 1);
+        Files.write(cacheFile, future);
+        assertEquals(Optional.of(ABC_SHA256), JarFingerprints.compute(files, cacheFile).get("hellasexample"));
+    }
+
+    /**
+     * A cached hash that is not a full lower-case hex SHA-256 is dropped, so
+     * the file is hashed again and the cache is rewritten.
+     */
+    @Test
+    void rehashesMalformedCachedHash() throws IOException {
+        final long size = Files.size(jar);
+        final long modified = Files.getLastModifiedTime(jar).toMillis();
+        for (String hash : new String[] {"", "ba7816bf", FAKE_SHA256.substring(1), FAKE_SHA256 + "0",
+                ABC_SHA256.toUpperCase(Locale.ROOT), FAKE_SHA256.substring(1) + "g"}) {
+            Files.write(cacheFile, cache(size, modified, hash));
+            final JarFingerprints fingerprints = JarFingerprints.compute(files, cacheFile);
+
+            assertEquals(Optional.of(ABC_SHA256), fingerprints.get("hellasexample"), hash);
+            assertEquals(Optional.of(ABC_SHA256.substring(0, JarFingerprints.SHORT_LENGTH)),
+                    fingerprints.getShort("hellasexample"), hash);
+            assertArrayEquals(cache(size, modified, ABC_SHA256), Files.readAllBytes(cacheFile), hash);
+        }
+    }
+
+    /**
+     * @param size     size recorded for the module file
+     * @param modified modification time recorded for the module file
+     * @param hash     hash recorded for the module file
+     * @return a cache file with a single entry for {@link #jar}
+     * @throws IOException never, the data is written to memory
+     */
+    private byte[] cache(final long size, final long modified, final String hash) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(JarFingerprints.MAGIC);
+            out.writeShort(JarFingerprints.FORMAT_VERSION);
+            out.writeInt(1);
+            out.writeUTF(jar.toString());
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.writeUTF(hash);
+        }
+        return bytes.toByteArray();
+    }
+}
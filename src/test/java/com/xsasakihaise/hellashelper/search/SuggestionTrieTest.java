@@ -0,0 +1,131 @@
+package com.xsasakihaise.hellashelper.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prefix completion of {@link SuggestionTrie}.
+ */
+final class SuggestionTrieTest {
+    private static final SuggestionTrie TRIE = SuggestionTrie.build(Arrays.asList("pokedex", "Pokemon", "poke",
+            "pokeball", "potion", "spawn", "spawner", "s", "", "POKEMON"));
+
+    /**
+     * Words are stored once, lower-cased, and empty words are dropped.
+     */
+    @Test
+    void storesDistinctLowerCaseWords() {
+        assertEquals(8, TRIE.size());
+        assertEquals(Arrays.asList("poke", "pokeball", "pokedex", "pokemon", "potion", "s", "spawn", "spawner"),
+                complete("", Integer.MAX_VALUE));
+    }
+
+    /**
+     * A prefix completes to exactly the words starting with it, in
+     * alphabetical order, including a word equal to the prefix.
+     */
+    @Test
+    void completesPrefixRange() {
+        assertEquals(Arrays.asList("poke", "pokeball", "pokedex", "pokemon", "potion"), complete("p", 10));
+        assertEquals(Arrays.asList("poke", "pokeball", "pokedex", "pokemon"), complete("poke", 10));
+        assertEquals(Collections.singletonList("pokemon"), complete("pokem", 10));
+        assertEquals(Collections.singletonList("pokemon"), complete("pokemon", 10));
+        assertEquals(Arrays.asList("s", "spawn", "spawner"), complete("s", 10));
+        assertEquals(Arrays.asList("spawn", "spawner"), complete("spawn", 10));
+    }
+
+    /**
+     * Prefixes no word starts with complete to nothing.
+     */
+    @Test
+    void completesUnknownPrefixToNothing() {
+        assertEquals(Collections.emptyList(), complete("x", 10));
+        assertEquals(Collections.emptyList(), complete("pokemons", 10));
+        assertEquals(Collections.emptyList(), complete("spawnr", 10));
+        assertEquals(Collections.emptyList(), complete("pokez", 10));
+    }
+
+    /**
+     * The limit keeps the first words of the range and is reported in the
+     * returned count.
+     */
+    @Test
+    void honoursLimit() {
+        assertEquals(Arrays.asList("poke", "pokeball"), complete("poke", 2));
+        assertEquals(Collections.emptyList(), complete("poke", 0));
+
+        final List<String> words = new ArrayList<>();
+        assertEquals(3, TRIE.complete("p", 0, 3, words::add));
+        assertEquals(4, TRIE.complete("poke", 0, 10, words::add));
+        assertEquals(0, TRIE.complete("x", 0, 10, words::add));
+    }
+
+    /**
+     * The prefix is matched without regard to case.
+     */
+    @Test
+    void foldsCase() {
+        assertEquals(Arrays.asList("poke", "pokeball", "pokedex", "pokemon"), complete("PoKe", 10));
+        assertEquals(Collections.singletonList("pokemon"), complete("PokeMon", 10));
+        assertEquals(Arrays.asList("spawn", "spawner"), complete("SPAWN", 10));
+    }
+
+    /**
+     * Only the characters from the offset on form the prefix, so the
+     * argument being completed can be read in place from the command line.
+     */
+    @Test
+    void readsPrefixFromOffset() {
+        final List<String> words = new ArrayList<>();
+        TRIE.complete("/hellas search spaw", 15, 10, words::add);
+
+        assertEquals(Arrays.asList("spawn", "spawner"), words);
+    }
+
+    /**
+     * Very long words are built and completed without recursing once per
+     * character.
+     */
+    @Test
+    void buildsVeryLongWords() {
+        final char[] chars = new char[200000];
+        Arrays.fill(chars, 'a');
+        final String word = new String(chars);
+        final SuggestionTrie trie = SuggestionTrie.build(Arrays.asList(word, word.substring(1) + "b", "b"));
+
+        final List<String> prefixed = complete(trie, "aa", 10);
+        assertEquals(2, prefixed.size());
+        assertEquals(word.length(), prefixed.get(0).length());
+        assertEquals('b', prefixed.get(1).charAt(word.length() - 1));
+        assertEquals(1, complete(trie, word, 10).size());
+        assertEquals(0, complete(trie, word + "a", 10).size());
+        assertEquals(Collections.singletonList("b"), complete(trie, "b", 10));
+    }
+
+    /**
+     * @param prefix prefix to complete
+     * @param limit  maximum number of completions
+     * @return the completions from {@link #TRIE}
+     */
+    private static List<String> complete(final String prefix, final int limit) {
+        return complete(TRIE, prefix, limit);
+    }
+
+    /**
+     * @param trie   trie to complete from
+     * @param prefix prefix to complete
+     * @param limit  maximum number of completions
+     * @return the completions
+     */
+    private static List<String> complete(final SuggestionTrie trie, final String prefix, final int limit) {
+        final List<String> words = new ArrayList<>();
+        trie.complete(prefix, 0, limit, words::add);
+        return words;
+    }
+}
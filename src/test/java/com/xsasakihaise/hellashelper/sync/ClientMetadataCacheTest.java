@@ -0,0 +1,173 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persistence and corrupt input for {@link ClientMetadataCache}.
+ */
+final class ClientMetadataCacheTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * A missing file opens as an empty cache.
+     */
+    @Test
+    void startsEmptyWithoutFile() {
+        final ClientMetadataCache cache = ClientMetadataCache.load(directory.resolve("client-metadata.bin"));
+
+        assertTrue(cache.checksums().isEmpty());
+        assertNull(cache.getActive());
+    }
+
+    /**
+     * A manifest is only activated once all of its entries are present.
+     */
+    @Test
+    void activatesCompleteManifestsOnly() {
+        final ClientMetadataCache cache = ClientMetadataCache.load(directory.resolve("client-metadata.bin"));
+        final List<ModMetadata> entries = entries(0);
+        final SyncManifest manifest = manifest(entries);
+
+        assertFalse(cache.accept(manifest, entries.subList(0, 1)));
+        assertNull(cache.getActive());
+        assertTrue(cache.accept(manifest, entries.subList(1, 2)));
+        assertSame(manifest, cache.getActive());
+    }
+
+    /**
+     * Saved manifests and entries are available after reloading.
+     */
+    @Test
+    void roundTripsThroughFile() {
+        final Path file = directory.resolve("client-metadata.bin");
+        final ClientMetadataCache cache = ClientMetadataCache.load(file);
+        final List<ModMetadata> entries = entries(0);
+        final SyncManifest manifest = manifest(entries);
+        assertTrue(cache.accept(manifest, entries));
+        cache.save();
+
+        final ClientMetadataCache loaded = ClientMetadataCache.load(file);
+
+        assertTrue(loaded.activate(manifest.getHash()));
+        for (ModMetadata entry : entries) {
+            SyncCodecTest.assertSameEntry(entry, loaded.get(entry.getChecksum()));
+        }
+    }
+
+    /**
+     * Only the last eight manifests and the entries they reference are kept.
+     */
+    @Test
+    void keepsLastEightManifests() {
+        final Path file = directory.resolve("client-metadata.bin");
+        final ClientMetadataCache cache = ClientMetadataCache.load(file);
+        final SyncManifest[] manifests = new SyncManifest[9];
+        for (int i = 0; i < manifests.length; i++) {
+            final List<ModMetadata> entries = entries(i);
+            manifests[i] = manifest(entries);
+            assertTrue(cache.accept(manifests[i], entries));
+        }
+        cache.save();
+
+        final ClientMetadataCache loaded = ClientMetadataCache.load(file);
+
+        assertFalse(loaded.activate(manifests[0].getHash()));
+        assertNull(loaded.get(manifests[0].getModules().get(0).getChecksum()));
+        for (int i = 1; i < manifests.length; i++) {
+            assertTrue(loaded.activate(manifests[i].getHash()), "manifest " + i);
+        }
+    }
+
+    /**
+     * Every truncation of a saved cache opens as an empty cache.
+     */
+    @Test
+    void ignoresTruncatedFile() throws IOException {
+        final Path file = directory.resolve("client-metadata.bin");
+        final ClientMetadataCache cache = ClientMetadataCache.load(file);
+        final List<ModMetadata> entries = entries(0);
+        final SyncManifest manifest = manifest(entries);
+        cache.accept(manifest, entries);
+        cache.save();
+        final byte[] bytes = Files.readAllBytes(file);
+
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            final ClientMetadataCache loaded = ClientMetadataCache.load(file);
+            assertTrue(loaded.checksums().isEmpty(), "length " + length);
+            assertFalse(loaded.activate(manifest.getHash()), "length " + length);
+        }
+    }
+
+    /**
+     * Oversized counts and string lengths open as an empty cache.
+     */
+    @Test
+    void ignoresOversizedFile() throws IOException {
+        final Path file = directory.resolve("client-metadata.bin");
+
+        Files.write(file, header(Integer.MAX_VALUE, -1));
+        assertTrue(ClientMetadataCache.load(file).checksums().isEmpty());
+
+        Files.write(file, header(0, Integer.MAX_VALUE));
+        assertTrue(ClientMetadataCache.load(file).checksums().isEmpty());
+
+        Files.write(file, header(0, 1, Integer.MAX_VALUE));
+        assertTrue(ClientMetadataCache.load(file).checksums().isEmpty());
+    }
+
+    /**
+     * @param seed distinguishes the entries of different manifests
+     * @return two entries
+     */
+    private static List<ModMetadata> entries(final int seed) {
+        return Arrays.asList(
+                ModMetadata.loaded("1." + seed, Collections.singletonList("hellascontrol [2.0,3.0)"),
+                        Arrays.asList("Adds /hellas commands", "Feature " + seed)),
+                ModMetadata.loaded("2." + seed, Collections.<String>emptyList(),
+                        Collections.singletonList("Other feature " + seed)));
+    }
+
+    /**
+     * @param entries entries of the two modules
+     * @return a manifest referencing the entries
+     */
+    private static SyncManifest manifest(final List<ModMetadata> entries) {
+        return SyncManifest.create(10, SyncManifestTest.modules(entries.get(0).getChecksum(),
+                entries.get(1).getChecksum()));
+    }
+
+    /**
+     * @param ints ints following the magic and format version
+     * @return the start of a cache file
+     * @throws IOException never, the data is written to memory
+     */
+    private static byte[] header(final int... ints) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(ClientMetadataCache.MAGIC);
+            out.writeShort(ClientMetadataCache.FORMAT_VERSION);
+            for (int value : ints) {
+                out.writeInt(value);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
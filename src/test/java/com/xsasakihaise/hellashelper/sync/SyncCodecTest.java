@@ -0,0 +1,184 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import com.xsasakihaise.hellashelper.metadata.ModMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips and corrupt input for the compressed entry chunks of
+ * {@link SyncCodec}.
+ */
+final class SyncCodecTest {
+    private static final ModMetadata EXAMPLE = ModMetadata.loaded("1.2.3",
+            Arrays.asList("hellascontrol [2.0,3.0)", "pixelmon 8.4.0+"),
+            Arrays.asList("Adds /hellas commands", "\u00dcn\u00efcode \u2013 entries \u2713", ""));
+
+    /**
+     * Entries survive a deflate and inflate with the same checksum.
+     */
+    @Test
+    void roundTripsEntries() throws IOException {
+        final ModMetadata other = ModMetadata.loaded("0.1", Collections.<String>emptyList(),
+                Collections.singletonList("Only feature"));
+
+        final List<byte[]> chunks = SyncCodec.deflate(Arrays.asList(EXAMPLE, other));
+        assertEquals(1, chunks.size());
+
+        final List<ModMetadata> entries = SyncCodec.inflate(chunks.get(0));
+        assertEquals(2, entries.size());
+        assertSameEntry(EXAMPLE, entries.get(0));
+        assertSameEntry(other, entries.get(1));
+    }
+
+    /**
+     * No entries produce no chunks.
+     */
+    @Test
+    void deflatesNothingToNoChunks() {
+        assertTrue(SyncCodec.deflate(Collections.<ModMetadata>emptyList()).isEmpty());
+    }
+
+    /**
+     * Entries are split across chunks once a chunk would exceed 512 KB of raw
+     * data, and keep their order.
+     */
+    @Test
+    void splitsLargeEntriesAcrossChunks() throws IOException {
+        final List<ModMetadata> large = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            large.add(ModMetadata.loaded("1." + i, Collections.<String>emptyList(),
+                    Collections.singletonList(repeat((char) ('a' + i), 300 * 1024))));
+        }
+
+        final List<byte[]> chunks = SyncCodec.deflate(large);
+        assertEquals(3, chunks.size());
+
+        final List<ModMetadata> entries = new ArrayList<>();
+        for (byte[] chunk : chunks) {
+            entries.addAll(SyncCodec.inflate(chunk));
+        }
+        assertEquals(3, entries.size());
+        for (int i = 0; i < 3; i++) {
+            assertSameEntry(large.get(i), entries.get(i));
+        }
+    }
+
+    /**
+     * Every truncation of a chunk is rejected, including one that only cuts
+     * the trailing zlib checksum.
+     */
+    @Test
+    void rejectsTruncatedChunk() {
+        final byte[] chunk = SyncCodec.deflate(Collections.singletonList(EXAMPLE)).get(0);
+        for (int length = 0; length < chunk.length; length++) {
+            final byte[] truncated = Arrays.copyOf(chunk, length);
+            assertThrows(IOException.class, () -> SyncCodec.inflate(truncated), "length " + length);
+        }
+    }
+
+    /**
+     * Data after the last entry is rejected.
+     */
+    @Test
+    void rejectsTrailingData() throws IOException {
+        final byte[] chunk = deflate(out -> {
+            out.writeInt(0);
+            out.writeInt(0);
+        });
+
+        assertThrows(IOException.class, () -> SyncCodec.inflate(chunk));
+    }
+
+    /**
+     * A string length beyond the per-string limit is rejected before it is
+     * allocated.
+     */
+    @Test
+    void rejectsOversizedString() throws IOException {
+        final byte[] chunk = deflate(out -> {
+            out.writeInt(1);
+            out.writeInt(Integer.MAX_VALUE);
+        });
+
+        assertThrows(IOException.class, () -> SyncCodec.inflate(chunk));
+    }
+
+    /**
+     * A chunk that inflates beyond 16 MiB is rejected, even if each of its
+     * strings is within the per-string limit.
+     */
+    @Test
+    void rejectsChunkInflatingBeyondLimit() throws IOException {
+        final byte[] chunk = deflate(out -> {
+            final byte[] blank = new byte[1024 * 1024];
+            out.writeInt(1);
+            out.writeInt(0);
+            out.writeInt(20);
+            for (int i = 0; i < 20; i++) {
+                out.writeInt(blank.length);
+                out.write(blank);
+            }
+            out.writeInt(0);
+        });
+
+        assertThrows(IOException.class, () -> SyncCodec.inflate(chunk));
+    }
+
+    /**
+     * @param expected entry that was sent
+     * @param actual   entry that was received
+     */
+    static void assertSameEntry(final ModMetadata expected, final ModMetadata actual) {
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getDependencies(), actual.getDependencies());
+        assertEquals(expected.getFeatures(), actual.getFeatures());
+        assertEquals(expected.getChecksum(), actual.getChecksum());
+    }
+
+    /**
+     * @param value character to repeat
+     * @param count number of repetitions
+     * @return the repeated character
+     */
+    private static String repeat(final char value, final int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, value);
+        return new String(chars);
+    }
+
+    /**
+     * @param body writes the raw chunk content
+     * @return the deflated chunk
+     * @throws IOException never, the data is written to memory
+     */
+    private static byte[] deflate(final Body body) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            body.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the raw content of a hand-made chunk.
+     */
+    private interface Body {
+        /**
+         * @param out uncompressed chunk content
+         * @throws IOException never, the data is written to memory
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,113 @@
+package com.xsasakihaise.hellashelper.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Hashing, round trips and corrupt input for {@link SyncManifest}.
+ */
+final class SyncManifestTest {
+    /**
+     * A written manifest reads back with the same hash and modules.
+     */
+    @Test
+    void roundTripsManifest() throws IOException {
+        final SyncManifest manifest = SyncManifest.create(10, modules("aaaa", "bbbb"));
+
+        final SyncManifest read = read(write(manifest));
+
+        assertEquals(manifest.getHash(), read.getHash());
+        assertEquals(10, read.getPageSize());
+        assertEquals(2, read.getModules().size());
+        for (int i = 0; i < 2; i++) {
+            final SyncManifest.Module expected = manifest.getModules().get(i);
+            final SyncManifest.Module actual = read.getModules().get(i);
+            assertEquals(expected.getModId(), actual.getModId());
+            assertEquals(expected.getLiteral(), actual.getLiteral());
+            assertEquals(expected.getDisplayName(), actual.getDisplayName());
+            assertEquals(expected.getChecksum(), actual.getChecksum());
+        }
+        assertEquals("hellasexample", read.find("example").getModId());
+    }
+
+    /**
+     * The hash only depends on the content.
+     */
+    @Test
+    void hashesContent() {
+        final String hash = SyncManifest.create(10, modules("aaaa", "bbbb")).getHash();
+
+        assertEquals(hash, SyncManifest.create(10, modules("aaaa", "bbbb")).getHash());
+        assertNotEquals(hash, SyncManifest.create(10, modules("aaaa", "cccc")).getHash());
+        assertNotEquals(hash, SyncManifest.create(20, modules("aaaa", "bbbb")).getHash());
+    }
+
+    /**
+     * Every truncation of a written manifest is rejected.
+     */
+    @Test
+    void rejectsTruncatedManifest() throws IOException {
+        final byte[] bytes = write(SyncManifest.create(10, modules("aaaa", "bbbb")));
+        for (int length = 0; length < bytes.length; length++) {
+            final byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> read(truncated), "length " + length);
+        }
+    }
+
+    /**
+     * A module count larger than the data is rejected without allocating for it.
+     */
+    @Test
+    void rejectsOversizedModuleCount() throws IOException {
+        final SyncManifest manifest = SyncManifest.create(10, modules("aaaa", "bbbb"));
+        final byte[] bytes = write(manifest);
+        final int countOffset = 2 + manifest.getHash().length() + 4;
+        ByteBuffer.wrap(bytes).putInt(countOffset, Integer.MAX_VALUE);
+
+        assertThrows(IOException.class, () -> read(bytes));
+    }
+
+    /**
+     * @param first  checksum of the first module's entry
+     * @param second checksum of the second module's entry
+     * @return two modules with the given checksums
+     */
+    static List<SyncManifest.Module> modules(final String first, final String second) {
+        return Arrays.asList(new SyncManifest.Module("hellasexample", "example", "Hellas Example", first),
+                new SyncManifest.Module("hellasother", "other", "Hellas Other", second));
+    }
+
+    /**
+     * @param manifest manifest to write
+     * @return the written manifest
+     * @throws IOException never, the data is written to memory
+     */
+    private static byte[] write(final SyncManifest manifest) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            manifest.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param bytes written manifest
+     * @return the manifest read back
+     * @throws IOException when the manifest is truncated
+     */
+    private static SyncManifest read(final byte[] bytes) throws IOException {
+        return SyncManifest.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}